@@ -0,0 +1,38 @@
+#!/bin/sh
+# Builds the drivers and an AppCDS archive, or runs Main against that archive.
+#
+#   batch/appcds.sh build             compile into out/batch/dsa.jar and dump out/batch/dsa.jsa
+#   batch/appcds.sh run <args...>     run Main with the archive, e.g. run batch/training.manifest
+#
+# The archive is tied to the JVM that dumped it, so rebuild after a JDK upgrade.
+set -e
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+OUT="$ROOT/out/batch"
+CLASSES="$OUT/classes"
+JAR="$OUT/dsa.jar"
+LIST="$OUT/classes.lst"
+ARCHIVE="$OUT/dsa.jsa"
+
+case "$1" in
+    build)
+        rm -rf "$OUT"
+        mkdir -p "$CLASSES"
+        javac --release 11 -nowarn -d "$CLASSES" $(find "$ROOT/src" -name '*.java')
+        # CDS only archives application classes that come from jars, not directories.
+        jar --create --file "$JAR" -C "$CLASSES" .
+        # Record every class a full training batch loads, then dump them into a shared archive.
+        java -Xshare:off -XX:DumpLoadedClassList="$LIST" -cp "$JAR" \
+            Main "$ROOT/batch/training.manifest" > /dev/null
+        java -Xshare:dump -XX:SharedClassListFile="$LIST" -XX:SharedArchiveFile="$ARCHIVE" \
+            -cp "$JAR"
+        ;;
+    run)
+        shift
+        exec java -Xshare:auto -XX:SharedArchiveFile="$ARCHIVE" -cp "$JAR" Main "$@"
+        ;;
+    *)
+        echo "usage: $0 build | run [--threads N] [--list] <manifest>" >&2
+        exit 2
+        ;;
+esac
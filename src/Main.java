@@ -1,15 +1,38 @@
-//TIP To <b>Run</b> code, press <shortcut actionId="Run"/> or
-// click the <icon src="AllIcons.Actions.Execute"/> icon in the gutter.
-public class Main {
-    public static void main(String[] args) {
-        //TIP Press <shortcut actionId="ShowIntentionActions"/> with your caret at the highlighted text
-        // to see how IntelliJ IDEA suggests fixing it.
-        System.out.println("Hello and welcome!");
+import runner.BatchRunner;
+import runner.DriverRegistry;
+
+import java.nio.file.Paths;
 
-        for (int i = 1; i <= 5; i++) {
-            //TIP Press <shortcut actionId="Debug"/> to start debugging your code. We have set one <icon src="AllIcons.Debugger.Db_set_breakpoint"/> breakpoint
-            // for you, but you can always add more by pressing <shortcut actionId="ToggleLineBreakpoint"/>.
-            System.out.println("i = " + i);
+/**
+ * Batch entry point: runs every (problem, input file) pair of a manifest on this one JVM.
+ *
+ *   java Main [--threads N] manifest.txt
+ *   java Main --list
+ *
+ * See runner.BatchRunner for the manifest format and batch/appcds.sh for the AppCDS archive.
+ */
+public class Main {
+    public static void main(String[] args) throws Exception {
+        DriverRegistry registry = DriverRegistry.discover(Main.class);
+        int threads = Runtime.getRuntime().availableProcessors();
+        String manifest = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--list")) {
+                registry.names().forEach(System.out::println);
+                return;
+            } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                manifest = args[i];
+            }
+        }
+        if (manifest == null) {
+            System.out.println("Usage: java Main [--threads N] <manifest> | --list");
+            System.out.println("Manifest lines: <problem> <inputFile> [<outputFile>]");
+            return;
         }
+        int failed = new BatchRunner(registry, threads).run(Paths.get(manifest));
+        // drivers may leave non-daemon threads behind (e.g. GrepSimulator's pool)
+        System.exit(failed == 0 ? 0 : 1);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,182 @@
+package deisgn.ecommerce;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Flash-sale safe inventory. reserve() takes stock with a CAS on a striped counter, so it
+ * replaces the check-then-act on Product.stock with one atomic step and never takes a lock.
+ * A reservation is then either committed (written to the WAL in a batch), cancelled, or
+ * released by the reaper when it times out. A CAS on its state decides which one of these
+ * wins, so stock is returned at most once.
+ *
+ * Expiring reservations sit in several DelayQueues picked by reservation id, so reserve()
+ * calls do not all queue up on a single DelayQueue lock. The reaper sleeps until the earliest
+ * deadline across them, or indefinitely when they are all empty; reserve() only wakes it when
+ * its reservation expires before the reaper would wake up on its own.
+ */
+public class InventoryEngine implements Closeable {
+    public static final long NO_STOCK = -1;
+
+    private static final int EXPIRY_SHARDS = 16;
+    private static final long IDLE = Long.MAX_VALUE;
+
+    private final int stripes;
+    private final long reservationTtlNanos;
+    private final WriteAheadLog wal;
+    private final Map<String, Long> committedOnDisk;
+    private final ConcurrentHashMap<String, StripedStock> stock = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Reservation> reservations = new ConcurrentHashMap<>();
+    private final AtomicLong reservationIds = new AtomicLong();
+    private final DelayQueue<Reservation>[] expiryQueues;
+    private final Thread reaper;
+    private volatile long reaperWakeAt = IDLE;
+    private volatile boolean running = true;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public InventoryEngine(Path walFile, int stripes, long reservationTtlMillis) throws IOException {
+        this.stripes = stripes;
+        this.reservationTtlNanos = TimeUnit.MILLISECONDS.toNanos(reservationTtlMillis);
+        this.wal = new WriteAheadLog(walFile);
+        this.committedOnDisk = wal.replay();
+        this.wal.start();
+        this.expiryQueues = new DelayQueue[EXPIRY_SHARDS];
+        for (int i = 0; i < EXPIRY_SHARDS; i++) {
+            expiryQueues[i] = new DelayQueue<>();
+        }
+        this.reaper = new Thread(this::reapExpired, "reservation-reaper");
+        this.reaper.setDaemon(true);
+        this.reaper.start();
+    }
+
+    /** Registers a SKU with its opening stock; orders already committed in the WAL are deducted. */
+    public void addSku(String sku, long openingStock) {
+        if (sku.getBytes(StandardCharsets.UTF_8).length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("SKU is too long");
+        }
+        long remaining = Math.max(0, openingStock - committedOnDisk.getOrDefault(sku, 0L));
+        if (stock.putIfAbsent(sku, new StripedStock(stripes, remaining)) != null) {
+            throw new IllegalArgumentException("SKU already registered: " + sku);
+        }
+    }
+
+    /** Returns a reservation id, or NO_STOCK when there is not enough left. */
+    public long reserve(String sku, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+        StripedStock skuStock = skuStock(sku);
+        int stripe = (int) (Thread.currentThread().getId() % stripes);
+        if (!skuStock.tryTake(stripe, quantity)) {
+            return NO_STOCK;
+        }
+        long id = reservationIds.incrementAndGet();
+        Reservation reservation = new Reservation(id, sku, stripe, quantity, System.nanoTime() + reservationTtlNanos);
+        reservations.put(id, reservation);
+        expiryQueues[(int) (id % EXPIRY_SHARDS)].add(reservation);
+        // TTLs are equal, so this only fires while the reaper is idle
+        if (reservation.expiresAtNanos < reaperWakeAt) {
+            LockSupport.unpark(reaper);
+        }
+        return id;
+    }
+
+    /**
+     * Completes once the order is durable; fails if the reservation expired or was cancelled,
+     * or if the WAL write failed, in which case the stock is returned.
+     */
+    public CompletableFuture<Void> commit(long reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null || !reservation.state.compareAndSet(Reservation.PENDING, Reservation.COMMITTED)) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("Reservation " + reservationId + " is no longer pending"));
+            return failed;
+        }
+        // the CAS above took the reservation away from the reaper, so a failed write must
+        // give the stock back itself or it would be neither available nor in the log
+        return wal.append(reservation.sku, reservation.id, reservation.quantity).whenComplete((ignored, error) -> {
+            if (error != null && reservation.state.compareAndSet(Reservation.COMMITTED, Reservation.RELEASED)) {
+                stock.get(reservation.sku).putBack(reservation.stripe, reservation.quantity);
+            }
+        });
+    }
+
+    public boolean cancel(long reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        return reservation != null && release(reservation);
+    }
+
+    public long available(String sku) {
+        return skuStock(sku).available();
+    }
+
+    /** Reservations that are neither committed, cancelled nor expired yet. */
+    public int pendingReservations() {
+        return reservations.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        reaper.interrupt();
+        wal.close();
+    }
+
+    private boolean release(Reservation reservation) {
+        if (!reservation.state.compareAndSet(Reservation.PENDING, Reservation.RELEASED)) {
+            return false;
+        }
+        stock.get(reservation.sku).putBack(reservation.stripe, reservation.quantity);
+        return true;
+    }
+
+    // reaperWakeAt is reset before the scan, so a reservation added behind the scan either
+    // is seen by it or sees IDLE and unparks the reaper; park() then returns at once
+    private void reapExpired() {
+        List<Reservation> expired = new ArrayList<>();
+        while (running) {
+            reaperWakeAt = IDLE;
+            long earliest = IDLE;
+            for (DelayQueue<Reservation> queue : expiryQueues) {
+                // drainTo takes the queue lock once for everything that has expired
+                queue.drainTo(expired);
+                for (Reservation reservation : expired) {
+                    // committed and cancelled ones are still queued; release() skips them
+                    if (release(reservation)) {
+                        reservations.remove(reservation.id);
+                    }
+                }
+                expired.clear();
+                Reservation next = queue.peek();
+                if (next != null && next.expiresAtNanos < earliest) {
+                    earliest = next.expiresAtNanos;
+                }
+            }
+            if (earliest == IDLE) {
+                LockSupport.park(this);
+            } else {
+                reaperWakeAt = earliest;
+                LockSupport.parkNanos(this, earliest - System.nanoTime());
+            }
+        }
+    }
+
+    private StripedStock skuStock(String sku) {
+        StripedStock skuStock = stock.get(sku);
+        if (skuStock == null) {
+            throw new IllegalArgumentException("Unknown SKU: " + sku);
+        }
+        return skuStock;
+    }
+}
@@ -0,0 +1,115 @@
+package deisgn.ecommerce;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flash sale on one hot SKU: many threads reserve, then commit, cancel or abandon the
+ * reservation (abandoned ones time out). At the end committed + available must equal the
+ * opening stock, committed must never exceed it, and a restart from the WAL must agree.
+ *
+ * The default opening stock is one unit per attempt. Reservations take two on average and
+ * only the committed ones keep it, so the SKU sells out late in the run and most attempts go
+ * through the CAS path rather than the sold-out one.
+ *
+ * Usage: InventoryStressTest [threads] [attemptsPerThread] [openingStock]
+ */
+public class InventoryStressTest {
+    private static final String SKU = "LAPTOP-1";
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int attempts = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        long openingStock = args.length > 2 ? Long.parseLong(args[2]) : (long) threads * attempts;
+        Path wal = Files.createTempFile("inventory", ".wal");
+        try {
+            run(wal, threads, attempts, openingStock);
+        } finally {
+            Files.deleteIfExists(wal);
+        }
+        System.out.println("PASSED");
+    }
+
+    private static void run(Path wal, int threads, int attempts, long openingStock) throws Exception {
+
+        AtomicLong committed = new AtomicLong();
+        AtomicLong soldOut = new AtomicLong();
+        long elapsed;
+        try (InventoryEngine engine = new InventoryEngine(wal, 16, 20)) {
+            engine.addSku(SKU, openingStock);
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(threads);
+            List<CompletableFuture<Void>> pending = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    List<CompletableFuture<Void>> commits = new ArrayList<>();
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < attempts; i++) {
+                        int quantity = 1 + random.nextInt(3);
+                        long reservation = engine.reserve(SKU, quantity);
+                        if (reservation == InventoryEngine.NO_STOCK) {
+                            soldOut.incrementAndGet();
+                            continue;
+                        }
+                        int outcome = random.nextInt(10);
+                        if (outcome < 6) {
+                            CompletableFuture<Void> commit = engine.commit(reservation);
+                            if (!commit.isCompletedExceptionally()) {
+                                committed.addAndGet(quantity);
+                                commits.add(commit);
+                            }
+                        } else if (outcome < 8) {
+                            engine.cancel(reservation);
+                        }
+                        // otherwise abandon it and let the reaper give the stock back
+                    }
+                    synchronized (pending) {
+                        pending.addAll(commits);
+                    }
+                    done.countDown();
+                }).start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            done.await();
+            elapsed = System.nanoTime() - begin;
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+            // let every abandoned reservation time out
+            for (int waited = 0; engine.pendingReservations() > 0 && waited < 10_000; waited += 10) {
+                Thread.sleep(10);
+            }
+
+            long available = engine.available(SKU);
+            System.out.println("Reserve attempts per second: " + (long) ((double) threads * attempts / (elapsed / 1e9)));
+            System.out.println("Sold out responses: " + soldOut.get());
+            System.out.println("Committed: " + committed.get() + ", available: " + available + ", opening: " + openingStock);
+            check(committed.get() <= openingStock, "oversold");
+            check(committed.get() + available == openingStock, "stock leaked");
+        }
+
+        try (InventoryEngine restarted = new InventoryEngine(wal, 16, 20)) {
+            restarted.addSku(SKU, openingStock);
+            System.out.println("Available after WAL replay: " + restarted.available(SKU));
+            check(restarted.available(SKU) == openingStock - committed.get(), "WAL replay disagrees");
+        }
+    }
+
+    private static void check(boolean condition, String failure) {
+        if (!condition) {
+            System.out.println("FAILED: " + failure);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package deisgn.ecommerce;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Stock held for a buyer until it is committed, cancelled or times out, whichever wins the CAS. */
+class Reservation implements Delayed {
+    static final int PENDING = 0;
+    static final int COMMITTED = 1;
+    static final int RELEASED = 2;
+
+    final long id;
+    final String sku;
+    final int stripe;
+    final int quantity;
+    final long expiresAtNanos;
+    final AtomicInteger state = new AtomicInteger(PENDING);
+
+    Reservation(long id, String sku, int stripe, int quantity, long expiresAtNanos) {
+        this.id = id;
+        this.sku = sku;
+        this.stripe = stripe;
+        this.quantity = quantity;
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(expiresAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(expiresAtNanos, ((Reservation) other).expiresAtNanos);
+    }
+}
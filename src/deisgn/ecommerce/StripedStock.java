@@ -0,0 +1,94 @@
+package deisgn.ecommerce;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock of one SKU split over several counters so that concurrent buyers CAS different cache
+ * lines. Each counter sits in its own 64 byte slot of the array to avoid false sharing.
+ *
+ * A reservation first tries the caller's home stripe. When that one runs dry it pulls what it
+ * still needs from the other stripes and leaves any excess in its home stripe. Every unit is
+ * moved by a CAS on exactly one counter, so the total can never go below zero and nothing is
+ * oversold.
+ */
+class StripedStock {
+    private static final int PAD = 8; // longs per 64 byte cache line
+
+    private final AtomicLongArray counters;
+    private final int stripes;
+
+    StripedStock(int stripes, long stock) {
+        this.stripes = stripes;
+        this.counters = new AtomicLongArray(stripes * PAD);
+        for (int i = 0; i < stripes; i++) {
+            counters.set(i * PAD, stock / stripes + (i < stock % stripes ? 1 : 0));
+        }
+    }
+
+    boolean tryTake(int home, int quantity) {
+        int homeSlot = (home % stripes) * PAD;
+        long available = counters.get(homeSlot);
+        while (available >= quantity) {
+            if (counters.compareAndSet(homeSlot, available, available - quantity)) {
+                return true;
+            }
+            available = counters.get(homeSlot);
+        }
+        return rebalanceAndTake(homeSlot, quantity);
+    }
+
+    void putBack(int home, long quantity) {
+        counters.addAndGet((home % stripes) * PAD, quantity);
+    }
+
+    long available() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += counters.get(i * PAD);
+        }
+        return total;
+    }
+
+    private boolean rebalanceAndTake(int homeSlot, int quantity) {
+        long collected = 0;
+        for (int i = 0; i < stripes && collected < quantity; i++) {
+            int slot = i * PAD;
+            if (slot == homeSlot) {
+                continue;
+            }
+            long available = counters.get(slot);
+            while (available > 0) {
+                // take half of the donor so the home stripe can serve the next few buyers too
+                long take = Math.min(available, Math.max(quantity - collected, available / 2));
+                if (counters.compareAndSet(slot, available, available - take)) {
+                    collected += take;
+                    break;
+                }
+                available = counters.get(slot);
+            }
+        }
+        if (collected < quantity) {
+            // the home stripe may have been refilled while we were away
+            long available = counters.get(homeSlot);
+            while (available > 0 && collected < quantity) {
+                long take = Math.min(available, quantity - collected);
+                if (counters.compareAndSet(homeSlot, available, available - take)) {
+                    collected += take;
+                    break;
+                }
+                available = counters.get(homeSlot);
+            }
+        }
+        if (collected >= quantity) {
+            if (collected > quantity) {
+                counters.addAndGet(homeSlot, collected - quantity);
+            }
+            return true;
+        }
+        // not enough stock anywhere: give back what we pulled
+        if (collected > 0) {
+            counters.addAndGet(homeSlot, collected);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,27 @@
+package deisgn.fileSharing;
+
+/** A content-defined slice of a file, addressed by the SHA-256 of its bytes. */
+public class Chunk {
+    private final String hash;
+    private final long offset;
+    private final int length;
+
+    public Chunk(String hash, long offset, int length) {
+        this.hash = hash;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    /** Where the chunk starts in the file version it belongs to. */
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,126 @@
+package deisgn.fileSharing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed chunk store on the local disk: a chunk lives at root/ab/abcdef... after
+ * its SHA-256, so identical content is stored once no matter how many files or versions
+ * reference it. Bytes are moved with FileChannel.transferTo in both directions, so they go
+ * from file to file inside the kernel. A staged chunk is hashed once more before it is moved
+ * into place, so a source file edited since it was chunked can never store the wrong bytes
+ * under a hash.
+ */
+public class ChunkStore {
+    private final Path root;
+    private final Path staging;
+    private final Set<String> known = ConcurrentHashMap.newKeySet();
+
+    public ChunkStore(Path root) throws IOException {
+        this.root = root;
+        this.staging = root.resolve("staging");
+        Files.createDirectories(staging);
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getParent().equals(staging))
+                    .forEach(file -> known.add(file.getFileName().toString()));
+        }
+    }
+
+    public boolean contains(String hash) {
+        return known.contains(hash);
+    }
+
+    /**
+     * Copies the chunk out of source unless it is already stored; returns true if bytes were written.
+     *
+     * @throws ContentMismatchException if the bytes at the chunk's offset no longer hash to its hash
+     */
+    public boolean put(Chunk chunk, FileChannel source) throws IOException {
+        if (known.contains(chunk.getHash())) {
+            return false;
+        }
+        Path temp = Files.createTempFile(staging, "chunk", ".tmp");
+        String staged;
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            transfer(source, chunk.getOffset(), chunk.getLength(), out);
+            staged = hash(out);
+        }
+        if (!staged.equals(chunk.getHash())) {
+            Files.delete(temp);
+            throw new ContentMismatchException("Chunk at " + chunk.getOffset() + " no longer matches "
+                    + chunk.getHash());
+        }
+        Path target = path(chunk.getHash());
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.delete(temp);
+        }
+        known.add(chunk.getHash());
+        return true;
+    }
+
+    /** Appends the stored chunk to target at its current position. */
+    public void copyTo(String hash, FileChannel target) throws IOException {
+        try (FileChannel in = FileChannel.open(path(hash), StandardOpenOption.READ)) {
+            transfer(in, 0, in.size(), target);
+        }
+    }
+
+    public int size() {
+        return known.size();
+    }
+
+    private Path path(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static String hash(FileChannel channel) throws IOException {
+        MessageDigest digest = FastCdcChunker.sha256();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 1 << 16));
+        long position = 0;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return FastCdcChunker.toHex(digest.digest());
+            }
+            buffer.flip();
+            digest.update(buffer);
+            position += read;
+        }
+    }
+
+    // transferTo may move fewer bytes than asked for, e.g. when the kernel caps a single call
+    private static void transfer(FileChannel source, long position, long count, FileChannel target) throws IOException {
+        while (count > 0) {
+            long moved = source.transferTo(position, count, target);
+            if (moved <= 0) {
+                throw new IOException("Source ended before " + count + " more bytes at " + position);
+            }
+            position += moved;
+            count -= moved;
+        }
+    }
+
+    /** The source changed between chunking and upload; nothing was stored for the chunk. */
+    public static class ContentMismatchException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        ContentMismatchException(String message) {
+            super(message);
+        }
+    }
+}
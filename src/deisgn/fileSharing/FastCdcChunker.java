@@ -0,0 +1,135 @@
+package deisgn.fileSharing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Splits a file into content-defined chunks with the FastCDC gear hash.
+ *
+ * The rolling hash is fp = (fp << 1) + GEAR[byte], so its top bits depend on the last 64
+ * bytes only, and a boundary is placed where the masked top bits are zero. An edit therefore
+ * only moves the boundaries right next to it; inserting or deleting bytes does not shift
+ * every later chunk the way fixed-size blocks would. Normalized chunking uses a harder mask
+ * before the average size and an easier one after it, which keeps chunk sizes close to the
+ * average. The first minSize bytes of a chunk are never tested for a boundary.
+ */
+public class FastCdcChunker {
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // fixed seed: boundaries have to be identical on every device and every run
+        SplittableRandom random = new SplittableRandom(0x5DEECE66DL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final int minSize;
+    private final int avgSize;
+    private final int maxSize;
+    private final long hardMask;
+    private final long easyMask;
+
+    public FastCdcChunker() {
+        this(2 * 1024, 8 * 1024, 64 * 1024);
+    }
+
+    public FastCdcChunker(int minSize, int avgSize, int maxSize) {
+        if (Integer.bitCount(avgSize) != 1 || minSize <= 0 || minSize >= avgSize || avgSize >= maxSize) {
+            throw new IllegalArgumentException("Need 0 < min < avg < max with avg a power of two");
+        }
+        this.minSize = minSize;
+        this.avgSize = avgSize;
+        this.maxSize = maxSize;
+        int bits = Integer.numberOfTrailingZeros(avgSize);
+        this.hardMask = topBits(bits + 2);
+        this.easyMask = topBits(bits - 2);
+    }
+
+    public List<Chunk> chunk(FileChannel channel) throws IOException {
+        MessageDigest digest = sha256();
+        List<Chunk> chunks = new ArrayList<>();
+        byte[] buffer = new byte[maxSize * 4];
+        ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+        int start = 0;
+        int end = 0;
+        long offset = 0;
+        long position = 0;
+        boolean eof = false;
+        while (true) {
+            if (!eof && end - start < maxSize) {
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                start = 0;
+                wrapped.clear().position(end);
+                while (wrapped.hasRemaining()) {
+                    int read = channel.read(wrapped, position);
+                    if (read < 0) {
+                        eof = true;
+                        break;
+                    }
+                    position += read;
+                }
+                end = wrapped.position();
+            }
+            if (start == end) {
+                return chunks;
+            }
+            int length = cutPoint(buffer, start, end - start);
+            digest.update(buffer, start, length);
+            chunks.add(new Chunk(toHex(digest.digest()), offset, length));
+            offset += length;
+            start += length;
+        }
+    }
+
+    private int cutPoint(byte[] data, int from, int available) {
+        if (available <= minSize) {
+            return available;
+        }
+        int limit = Math.min(available, maxSize);
+        int normal = Math.min(avgSize, limit);
+        long fp = 0;
+        int i = minSize;
+        for (; i < normal; i++) {
+            fp = (fp << 1) + GEAR[data[from + i] & 0xFF];
+            if ((fp & hardMask) == 0) {
+                return i + 1;
+            }
+        }
+        for (; i < limit; i++) {
+            fp = (fp << 1) + GEAR[data[from + i] & 0xFF];
+            if ((fp & easyMask) == 0) {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    private static long topBits(int count) {
+        return -1L << (64 - count);
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every JVM", e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = Character.forDigit((bytes[i] >> 4) & 0xF, 16);
+            hex[i * 2 + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+        }
+        return new String(hex);
+    }
+}
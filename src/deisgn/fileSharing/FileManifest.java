@@ -0,0 +1,39 @@
+package deisgn.fileSharing;
+
+import java.util.Collections;
+import java.util.List;
+
+/** One version of a file: the ordered list of chunks that make it up. */
+public class FileManifest {
+    private final String fileId;
+    private final int version;
+    private final List<Chunk> chunks;
+    private final long size;
+
+    FileManifest(String fileId, int version, List<Chunk> chunks) {
+        this.fileId = fileId;
+        this.version = version;
+        this.chunks = Collections.unmodifiableList(chunks);
+        long total = 0;
+        for (Chunk chunk : chunks) {
+            total += chunk.getLength();
+        }
+        this.size = total;
+    }
+
+    public String getFileId() {
+        return fileId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public List<Chunk> getChunks() {
+        return chunks;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,115 @@
+package deisgn.fileSharing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Syncs a large random file, edits a few bytes in the middle and inserts a few near the start,
+ * syncs again and shows that only a handful of chunks moved. Then restores both versions and
+ * checks them against the originals.
+ *
+ * Usage: SyncDemo [fileSizeMb]
+ */
+public class SyncDemo {
+    public static void main(String[] args) throws IOException {
+        long size = (args.length > 0 ? Long.parseLong(args[0]) : 256) << 20;
+        Path work = Files.createTempDirectory("sync");
+        try {
+            run(work, size);
+        } finally {
+            deleteRecursively(work);
+        }
+    }
+
+    private static void run(Path work, long size) throws IOException {
+        Path file = work.resolve("data.bin");
+        writeRandom(file, size);
+
+        SyncEngine engine = new SyncEngine(new FastCdcChunker(), new ChunkStore(work.resolve("store")));
+        long start = System.nanoTime();
+        SyncEngine.SyncResult first = engine.sync("data.bin", file);
+        report("Initial sync", first, System.nanoTime() - start);
+        String firstHash = sha256(file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap("small edit".getBytes()), size / 2);
+        }
+        insert(file, 1000, "inserted bytes shift everything after them".getBytes());
+
+        start = System.nanoTime();
+        SyncEngine.SyncResult second = engine.sync("data.bin", file);
+        report("Re-sync after edit", second, System.nanoTime() - start);
+        System.out.println("Chunks in delta v1 -> v2: " + engine.delta("data.bin", 1, 2).size());
+
+        Path restored = work.resolve("restored.bin");
+        engine.restore("data.bin", 2, restored);
+        System.out.println("Version 2 restored intact: " + sha256(restored).equals(sha256(file)));
+        engine.restore("data.bin", 1, restored);
+        System.out.println("Version 1 restored intact: " + sha256(restored).equals(firstHash));
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+
+    private static void report(String label, SyncEngine.SyncResult result, long nanos) {
+        FileManifest manifest = result.getManifest();
+        System.out.println(label + ": " + manifest.getChunks().size() + " chunks, "
+                + result.getChunksUploaded() + " uploaded (" + result.getBytesUploaded() / 1024 + " KB of "
+                + manifest.getSize() / 1024 + " KB) in " + nanos / 1_000_000 + " ms");
+    }
+
+    private static void writeRandom(Path file, long size) throws IOException {
+        Random random = new Random(1);
+        byte[] block = new byte[1 << 20];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            for (long written = 0; written < size; written += block.length) {
+                random.nextBytes(block);
+                channel.write(ByteBuffer.wrap(block, 0, (int) Math.min(block.length, size - written)));
+            }
+        }
+    }
+
+    private static void insert(Path file, long at, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), "insert", ".tmp");
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            in.transferTo(0, at, out);
+            out.write(ByteBuffer.wrap(bytes));
+            for (long pos = at; pos < in.size(); ) {
+                pos += in.transferTo(pos, in.size() - pos, out);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest = FastCdcChunker.sha256();
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return FastCdcChunker.toHex(digest.digest());
+    }
+}
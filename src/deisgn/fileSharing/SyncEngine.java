@@ -0,0 +1,152 @@
+package deisgn.fileSharing;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chunk-level sync. A sync reads the local file once to find its content-defined chunks. Only
+ * chunks the store does not have yet are transferred, and a new version is just a new list of
+ * chunk hashes. After a small edit to a large file, the bytes moved and stored are the few
+ * chunks around the edit, not the whole file.
+ */
+public class SyncEngine {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final FastCdcChunker chunker;
+    private final ChunkStore store;
+    private final Map<String, List<FileManifest>> versions = new ConcurrentHashMap<>();
+
+    public SyncEngine(FastCdcChunker chunker, ChunkStore store) {
+        this.chunker = chunker;
+        this.store = store;
+    }
+
+    /**
+     * Uploads the file's new chunks and records a version. If the file is modified while it is
+     * read, the sync starts over; chunks already stored are kept since each was hash-checked.
+     */
+    public SyncResult sync(String fileId, Path localFile) throws IOException {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Upload upload = upload(localFile);
+            if (upload == null) {
+                continue;
+            }
+            List<FileManifest> history = versions.computeIfAbsent(fileId, id -> new ArrayList<>());
+            synchronized (history) {
+                FileManifest manifest = new FileManifest(fileId, history.size() + 1, upload.chunks);
+                history.add(manifest);
+                return new SyncResult(manifest, upload.chunksUploaded, upload.bytesUploaded);
+            }
+        }
+        throw new IOException(localFile + " kept changing during " + MAX_ATTEMPTS + " sync attempts");
+    }
+
+    // returns null when the file changed between chunking and the end of the upload
+    private Upload upload(Path localFile) throws IOException {
+        BasicFileAttributes before = Files.readAttributes(localFile, BasicFileAttributes.class);
+        List<Chunk> chunks;
+        int uploaded = 0;
+        long bytesUploaded = 0;
+        try (FileChannel source = FileChannel.open(localFile, StandardOpenOption.READ)) {
+            chunks = chunker.chunk(source);
+            for (Chunk chunk : chunks) {
+                if (store.put(chunk, source)) {
+                    uploaded++;
+                    bytesUploaded += chunk.getLength();
+                }
+            }
+        } catch (ChunkStore.ContentMismatchException e) {
+            return null;
+        }
+        BasicFileAttributes after = Files.readAttributes(localFile, BasicFileAttributes.class);
+        if (before.size() != after.size() || !before.lastModifiedTime().equals(after.lastModifiedTime())) {
+            return null;
+        }
+        return new Upload(chunks, uploaded, bytesUploaded);
+    }
+
+    /** Chunks of toVersion whose content is not anywhere in fromVersion. */
+    public List<Chunk> delta(String fileId, int fromVersion, int toVersion) {
+        Set<String> base = new HashSet<>();
+        for (Chunk chunk : manifest(fileId, fromVersion).getChunks()) {
+            base.add(chunk.getHash());
+        }
+        List<Chunk> changed = new ArrayList<>();
+        for (Chunk chunk : manifest(fileId, toVersion).getChunks()) {
+            if (!base.contains(chunk.getHash())) {
+                changed.add(chunk);
+            }
+        }
+        return changed;
+    }
+
+    /** Rebuilds a version at target by streaming its chunks out of the store. */
+    public void restore(String fileId, int version, Path target) throws IOException {
+        FileManifest manifest = manifest(fileId, version);
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Chunk chunk : manifest.getChunks()) {
+                store.copyTo(chunk.getHash(), out);
+            }
+        }
+    }
+
+    public FileManifest manifest(String fileId, int version) {
+        List<FileManifest> history = versions.get(fileId);
+        if (history == null) {
+            throw new IllegalArgumentException("Unknown file: " + fileId);
+        }
+        synchronized (history) {
+            if (version < 1 || version > history.size()) {
+                throw new IllegalArgumentException("File " + fileId + " has no version " + version);
+            }
+            return history.get(version - 1);
+        }
+    }
+
+    public static class SyncResult {
+        private final FileManifest manifest;
+        private final int chunksUploaded;
+        private final long bytesUploaded;
+
+        SyncResult(FileManifest manifest, int chunksUploaded, long bytesUploaded) {
+            this.manifest = manifest;
+            this.chunksUploaded = chunksUploaded;
+            this.bytesUploaded = bytesUploaded;
+        }
+
+        public FileManifest getManifest() {
+            return manifest;
+        }
+
+        public int getChunksUploaded() {
+            return chunksUploaded;
+        }
+
+        public long getBytesUploaded() {
+            return bytesUploaded;
+        }
+    }
+
+    private static class Upload {
+        final List<Chunk> chunks;
+        final int chunksUploaded;
+        final long bytesUploaded;
+
+        Upload(List<Chunk> chunks, int chunksUploaded, long bytesUploaded) {
+            this.chunks = chunks;
+            this.chunksUploaded = chunksUploaded;
+            this.bytesUploaded = bytesUploaded;
+        }
+    }
+}
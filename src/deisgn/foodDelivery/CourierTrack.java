@@ -0,0 +1,145 @@
+package deisgn.foodDelivery;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Recent positions of one courier in fixed-size primitive rings, so memory per courier is
+ * bounded and a ping allocates nothing.
+ *
+ * Ingest drops a ping when it adds nothing: the courier is where dead reckoning from the last
+ * two kept points says they should be, within toleranceMeters, and a keep-alive point is not
+ * due yet. That covers both standing still and driving straight at a steady speed.
+ *
+ * Speed and ETA are updated from every accepted ping (kept or dropped), using an exponential
+ * moving average of speed. Readers use StampedLock's optimistic read. It works like a seqlock:
+ * they copy without locking and retry if a write got in between, so the ingest path is never
+ * blocked by readers.
+ */
+class CourierTrack {
+    private static final double SPEED_SMOOTHING = 0.2;
+    private static final double MIN_SPEED_MPS = 1.0;
+
+    private final long courierId;
+    private final double[] lats;
+    private final double[] lngs;
+    private final long[] times;
+    private final int mask;
+    private final StampedLock lock = new StampedLock();
+
+    // guarded by the write lock, read optimistically
+    private long count;
+    private double lastLat;
+    private double lastLng;
+    private long lastTime = Long.MIN_VALUE;
+    private double speed;
+    private double destLat = Double.NaN;
+    private double destLng = Double.NaN;
+    private double eta = -1;
+
+    CourierTrack(long courierId, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.courierId = courierId;
+        this.lats = new double[capacity];
+        this.lngs = new double[capacity];
+        this.times = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /** Returns true if the point was stored, false if it was downsampled away or stale. */
+    boolean ingest(double lat, double lng, long time, double toleranceMeters, long keepAliveMillis) {
+        long stamp = lock.writeLock();
+        try {
+            if (time <= lastTime) {
+                return false;
+            }
+            if (lastTime != Long.MIN_VALUE) {
+                double step = Geo.distanceMeters(lastLat, lastLng, lat, lng);
+                double instant = step / ((time - lastTime) / 1000.0);
+                speed = speed == 0 ? instant : speed + SPEED_SMOOTHING * (instant - speed);
+            }
+            lastLat = lat;
+            lastLng = lng;
+            lastTime = time;
+            updateEta();
+            if (count >= 2 && isPredictable(lat, lng, time, toleranceMeters, keepAliveMillis)) {
+                return false;
+            }
+            int slot = (int) (count & mask);
+            lats[slot] = lat;
+            lngs[slot] = lng;
+            times[slot] = time;
+            count++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void setDestination(double lat, double lng) {
+        long stamp = lock.writeLock();
+        try {
+            destLat = lat;
+            destLng = lng;
+            updateEta();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    TrackSnapshot snapshot(int maxPoints) {
+        if (maxPoints < 0) {
+            throw new IllegalArgumentException("Max points must not be negative: " + maxPoints);
+        }
+        while (true) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp == 0) {
+                Thread.onSpinWait(); // a write is in progress
+                continue;
+            }
+            long n = Math.min(Math.min(count, lats.length), maxPoints);
+            double[] snapshotLats = new double[(int) n];
+            double[] snapshotLngs = new double[(int) n];
+            long[] snapshotTimes = new long[(int) n];
+            long first = count - n;
+            for (int i = 0; i < n; i++) {
+                int slot = (int) ((first + i) & mask);
+                snapshotLats[i] = lats[slot];
+                snapshotLngs[i] = lngs[slot];
+                snapshotTimes[i] = times[slot];
+            }
+            double currentLat = lastLat;
+            double currentLng = lastLng;
+            long currentTime = lastTime;
+            double snapshotSpeed = speed;
+            double snapshotEta = eta;
+            if (lock.validate(stamp)) {
+                return new TrackSnapshot(courierId, snapshotLats, snapshotLngs, snapshotTimes, currentLat, currentLng,
+                        currentTime, snapshotSpeed, snapshotEta);
+            }
+        }
+    }
+
+    private boolean isPredictable(double lat, double lng, long time, double toleranceMeters, long keepAliveMillis) {
+        int last = (int) ((count - 1) & mask);
+        int previous = (int) ((count - 2) & mask);
+        long sinceLast = time - times[last];
+        if (sinceLast >= keepAliveMillis) {
+            return false;
+        }
+        double span = times[last] - times[previous];
+        double ratio = span <= 0 ? 0 : sinceLast / span;
+        double predictedLat = lats[last] + (lats[last] - lats[previous]) * ratio;
+        double predictedLng = lngs[last] + (lngs[last] - lngs[previous]) * ratio;
+        return Geo.distanceMeters(predictedLat, predictedLng, lat, lng) <= toleranceMeters;
+    }
+
+    private void updateEta() {
+        if (Double.isNaN(destLat) || lastTime == Long.MIN_VALUE) {
+            eta = -1;
+            return;
+        }
+        eta = Geo.distanceMeters(lastLat, lastLng, destLat, destLng) / Math.max(speed, MIN_SPEED_MPS);
+    }
+}
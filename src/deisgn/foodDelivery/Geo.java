@@ -0,0 +1,15 @@
+package deisgn.foodDelivery;
+
+final class Geo {
+    private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+
+    private Geo() {
+    }
+
+    // equirectangular approximation; plenty for the few hundred metres between pings
+    static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double x = Math.toRadians(lng2 - lng1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METERS;
+    }
+}
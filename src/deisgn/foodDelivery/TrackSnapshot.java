@@ -0,0 +1,79 @@
+package deisgn.foodDelivery;
+
+/**
+ * Consistent copy of a courier's recent positions and ETA, oldest point first.
+ *
+ * The indexed points are the downsampled history, which can lag the courier by up to the
+ * keep-alive interval. The current position is the latest accepted ping, kept or not.
+ */
+public class TrackSnapshot {
+    private final long courierId;
+    private final double[] lats;
+    private final double[] lngs;
+    private final long[] times;
+    private final double currentLat;
+    private final double currentLng;
+    private final long currentTime;
+    private final double speedMetersPerSecond;
+    private final double etaSeconds;
+
+    TrackSnapshot(long courierId, double[] lats, double[] lngs, long[] times, double currentLat, double currentLng,
+                  long currentTime, double speedMetersPerSecond, double etaSeconds) {
+        this.courierId = courierId;
+        this.lats = lats;
+        this.lngs = lngs;
+        this.times = times;
+        this.currentLat = currentLat;
+        this.currentLng = currentLng;
+        this.currentTime = currentTime;
+        this.speedMetersPerSecond = speedMetersPerSecond;
+        this.etaSeconds = etaSeconds;
+    }
+
+    public long getCourierId() {
+        return courierId;
+    }
+
+    public int size() {
+        return times.length;
+    }
+
+    public double getLat(int i) {
+        return lats[i];
+    }
+
+    public double getLng(int i) {
+        return lngs[i];
+    }
+
+    public long getTime(int i) {
+        return times[i];
+    }
+
+    /** False until the courier has sent a ping. */
+    public boolean hasPosition() {
+        return currentTime != Long.MIN_VALUE;
+    }
+
+    public double getCurrentLat() {
+        return currentLat;
+    }
+
+    public double getCurrentLng() {
+        return currentLng;
+    }
+
+    /** Time of the latest accepted ping, or Long.MIN_VALUE when there is none. */
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    public double getSpeedMetersPerSecond() {
+        return speedMetersPerSecond;
+    }
+
+    /** Seconds to the destination, or -1 when the courier has no destination. */
+    public double getEtaSeconds() {
+        return etaSeconds;
+    }
+}
@@ -0,0 +1,83 @@
+package deisgn.foodDelivery;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulates couriers pinging once a second of simulated time: some wait at restaurants, most
+ * drive straight legs with GPS jitter and turn now and then. A reader thread keeps taking
+ * snapshots the way tracking screens would. Reports ingest rate, how many points downsampling
+ * kept, and snapshot rate.
+ *
+ * Usage: TrackingLoadGenerator [couriers] [ingestThreads] [seconds]
+ */
+public class TrackingLoadGenerator {
+    public static void main(String[] args) throws InterruptedException {
+        int couriers = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int ingestThreads = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        TrackingService service = new TrackingService();
+        double[] lat = new double[couriers];
+        double[] lng = new double[couriers];
+        double[] headingLat = new double[couriers];
+        double[] headingLng = new double[couriers];
+        long[] clock = new long[couriers];
+        ThreadLocalRandom setup = ThreadLocalRandom.current();
+        for (int i = 0; i < couriers; i++) {
+            lat[i] = setup.nextDouble(12.85, 13.10);
+            lng[i] = setup.nextDouble(77.45, 77.75);
+            clock[i] = System.currentTimeMillis();
+            service.assignDestination(i, setup.nextDouble(12.85, 13.10), setup.nextDouble(77.45, 77.75));
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong snapshots = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(ingestThreads + 1);
+        for (int t = 0; t < ingestThreads; t++) {
+            int from = couriers * t / ingestThreads;
+            int to = couriers * (t + 1) / ingestThreads;
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    for (int i = from; i < to; i++) {
+                        if (random.nextInt(100) == 0) {
+                            // new leg: a quarter of couriers stop (waiting for food), the rest turn
+                            boolean waiting = random.nextInt(4) == 0;
+                            headingLat[i] = waiting ? 0 : random.nextDouble(-0.0001, 0.0001);
+                            headingLng[i] = waiting ? 0 : random.nextDouble(-0.0001, 0.0001);
+                        }
+                        lat[i] += headingLat[i];
+                        lng[i] += headingLng[i];
+                        clock[i] += 1000;
+                        double jitter = 0.00002; // about 2 m of GPS noise
+                        service.ingest(i, lat[i] + random.nextDouble(-jitter, jitter),
+                                lng[i] + random.nextDouble(-jitter, jitter), clock[i]);
+                    }
+                }
+                done.countDown();
+            }, "ingest-" + t).start();
+        }
+        new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (running.get()) {
+                service.snapshot(random.nextInt(couriers), 32);
+                snapshots.incrementAndGet();
+            }
+            done.countDown();
+        }, "subscriber").start();
+
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        done.await();
+
+        long received = service.receivedCount();
+        System.out.println("Couriers: " + couriers);
+        System.out.println("Pings ingested per second: " + received / seconds);
+        System.out.println("Points kept after downsampling: " + service.keptCount() * 100 / Math.max(received, 1) + "%");
+        System.out.println("Snapshots per second: " + snapshots.get() / seconds);
+        service.trackOrder(0);
+    }
+}
@@ -0,0 +1,74 @@
+package deisgn.foodDelivery;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Ingestion path for courier GPS pings and lock-free snapshots for order tracking screens. */
+public class TrackingService {
+    private final int historyPerCourier;
+    private final double toleranceMeters;
+    private final long keepAliveMillis;
+    private final ConcurrentHashMap<Long, CourierTrack> tracks = new ConcurrentHashMap<>();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder kept = new LongAdder();
+
+    public TrackingService() {
+        this(256, 10.0, 30_000);
+    }
+
+    public TrackingService(int historyPerCourier, double toleranceMeters, long keepAliveMillis) {
+        this.historyPerCourier = historyPerCourier;
+        this.toleranceMeters = toleranceMeters;
+        this.keepAliveMillis = keepAliveMillis;
+    }
+
+    public boolean ingest(long courierId, double lat, double lng, long timeMillis) {
+        received.increment();
+        boolean stored = track(courierId).ingest(lat, lng, timeMillis, toleranceMeters, keepAliveMillis);
+        if (stored) {
+            kept.increment();
+        }
+        return stored;
+    }
+
+    /** Sets where the courier is heading (restaurant, then customer); the ETA follows from there. */
+    public void assignDestination(long courierId, double lat, double lng) {
+        track(courierId).setDestination(lat, lng);
+    }
+
+    /**
+     * Returns the latest maxPoints positions, oldest first, with speed and ETA. Returns null for
+     * a courier the service has never heard of. A courier that has a destination but has not
+     * sent a ping yet gets an empty snapshot.
+     */
+    public TrackSnapshot snapshot(long courierId, int maxPoints) {
+        if (maxPoints < 0) {
+            throw new IllegalArgumentException("Max points must not be negative: " + maxPoints);
+        }
+        CourierTrack track = tracks.get(courierId);
+        return track == null ? null : track.snapshot(maxPoints);
+    }
+
+    public void trackOrder(long courierId) {
+        TrackSnapshot snapshot = snapshot(courierId, 0);
+        if (snapshot == null || !snapshot.hasPosition()) {
+            System.out.println("No position yet for courier " + courierId);
+            return;
+        }
+        System.out.println("Courier " + courierId + " at " + snapshot.getCurrentLat() + ", " + snapshot.getCurrentLng()
+                + " ETA " + Math.round(snapshot.getEtaSeconds()) + "s");
+    }
+
+    public long receivedCount() {
+        return received.sum();
+    }
+
+    public long keptCount() {
+        return kept.sum();
+    }
+
+    private CourierTrack track(long courierId) {
+        CourierTrack track = tracks.get(courierId);
+        return track != null ? track : tracks.computeIfAbsent(courierId, id -> new CourierTrack(id, historyPerCourier));
+    }
+}
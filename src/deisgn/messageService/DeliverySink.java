@@ -0,0 +1,9 @@
+package deisgn.messageService;
+
+import java.util.List;
+
+/** Where delivery workers hand messages off, e.g. a websocket session or push notifications. */
+public interface DeliverySink {
+    /** Called with messages for one recipient, in conversation order. */
+    void deliver(long recipientId, List<Message> batch);
+}
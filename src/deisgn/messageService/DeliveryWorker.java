@@ -0,0 +1,89 @@
+package deisgn.messageService;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains its queue in batches and hands each recipient all of their pending messages in one
+ * call. A recipient is always routed to the same worker, and the queue is FIFO, so per
+ * recipient order is the order the sequencer enqueued in.
+ *
+ * A sink that throws only loses that recipient's batch: the failure is counted and the worker
+ * keeps draining, so a bad sink can never fill the queue and block senders.
+ */
+class DeliveryWorker implements Runnable {
+    private static final Delivery STOP = new Delivery(-1, null);
+
+    private final BlockingQueue<Delivery> queue;
+    private final DeliverySink sink;
+    private final int maxBatch;
+    private final LongAdder failedDeliveries = new LongAdder();
+
+    DeliveryWorker(int queueCapacity, int maxBatch, DeliverySink sink) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.sink = sink;
+    }
+
+    void enqueue(long recipientId, Message message) throws InterruptedException {
+        queue.put(new Delivery(recipientId, message));
+    }
+
+    void stop() throws InterruptedException {
+        queue.put(STOP);
+    }
+
+    /** Messages whose deliver call threw. */
+    long failedDeliveries() {
+        return failedDeliveries.sum();
+    }
+
+    @Override
+    public void run() {
+        List<Delivery> drained = new ArrayList<>(maxBatch);
+        Map<Long, List<Message>> byRecipient = new LinkedHashMap<>();
+        try {
+            while (true) {
+                drained.add(queue.take());
+                queue.drainTo(drained, maxBatch - 1);
+                boolean stop = false;
+                for (Delivery delivery : drained) {
+                    if (delivery == STOP) {
+                        stop = true;
+                        break;
+                    }
+                    byRecipient.computeIfAbsent(delivery.recipientId, id -> new ArrayList<>()).add(delivery.message);
+                }
+                for (Map.Entry<Long, List<Message>> entry : byRecipient.entrySet()) {
+                    try {
+                        sink.deliver(entry.getKey(), entry.getValue());
+                    } catch (RuntimeException e) {
+                        failedDeliveries.add(entry.getValue().size());
+                    }
+                }
+                drained.clear();
+                byRecipient.clear();
+                if (stop) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Delivery {
+        final long recipientId;
+        final Message message;
+
+        Delivery(long recipientId, Message message) {
+            this.recipientId = recipientId;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package deisgn.messageService;
+
+public class Message {
+    private final long id;
+    private final long conversationId;
+    private final long sequence;
+    private final long senderId;
+    private final String content;
+
+    public Message(long id, long conversationId, long sequence, long senderId, String content) {
+        this.id = id;
+        this.conversationId = conversationId;
+        this.sequence = sequence;
+        this.senderId = senderId;
+        this.content = content;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getConversationId() {
+        return conversationId;
+    }
+
+    /** Position of the message within its conversation, starting at 0. */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getSenderId() {
+        return senderId;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public long getTimestamp() {
+        return SnowflakeIdGenerator.timestampOf(id);
+    }
+}
@@ -0,0 +1,124 @@
+package deisgn.messageService;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Send path: a per-conversation sequencer that, while holding the conversation's monitor,
+ * takes an id from the Snowflake generator, assigns the next sequence number and hands the
+ * message to the log and to the delivery worker of every other member. Taking the id under
+ * the monitor keeps ids in sequence order within a conversation. Both consumers are FIFO, so
+ * a conversation is logged and delivered in sequence order, while different conversations
+ * never wait on each other.
+ *
+ * Workers are a fixed pool of platform threads; recipients are pinned to a worker by id.
+ */
+public class MessagePipeline implements Closeable {
+    private static final int QUEUE_CAPACITY = 1 << 16;
+    private static final int MAX_BATCH = 1024;
+    private static final long SEGMENT_SIZE = 64L << 20;
+
+    private final SnowflakeIdGenerator ids;
+    private final SegmentedMessageLog log;
+    private final DeliveryWorker[] workers;
+    private final Thread[] workerThreads;
+    private final ConcurrentHashMap<Long, Conversation> conversations = new ConcurrentHashMap<>();
+
+    public MessagePipeline(Path logDirectory, int nodeId, int workerCount, DeliverySink sink) throws IOException {
+        this.ids = new SnowflakeIdGenerator(nodeId);
+        this.log = new SegmentedMessageLog(logDirectory, SEGMENT_SIZE);
+        this.workers = new DeliveryWorker[workerCount];
+        this.workerThreads = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new DeliveryWorker(QUEUE_CAPACITY, MAX_BATCH, sink);
+            workerThreads[i] = new Thread(workers[i], "delivery-" + i);
+            workerThreads[i].start();
+        }
+    }
+
+    /** Registers a direct or group conversation; sequencing resumes from what is in the log. */
+    public void createConversation(long conversationId, long... memberIds) {
+        conversations.putIfAbsent(conversationId,
+                new Conversation(conversationId, memberIds.clone(), log.length(conversationId)));
+    }
+
+    /** Blocks while the log's append queue is full; fails once the log has hit a write error. */
+    public Message sendMessage(long conversationId, long senderId, String content)
+            throws IOException, InterruptedException {
+        Conversation conversation = conversations.get(conversationId);
+        if (conversation == null) {
+            throw new IllegalArgumentException("Unknown conversation: " + conversationId);
+        }
+        if (!conversation.isMember(senderId)) {
+            throw new IllegalArgumentException("User " + senderId + " is not in conversation " + conversationId);
+        }
+        synchronized (conversation) {
+            Message message = new Message(ids.nextId(), conversationId, conversation.nextSequence++, senderId, content);
+            log.append(message);
+            for (long memberId : conversation.memberIds) {
+                if (memberId != senderId) {
+                    workers[(int) Math.floorMod(memberId, (long) workers.length)].enqueue(memberId, message);
+                }
+            }
+            return message;
+        }
+    }
+
+    /** Up to limit messages with sequence below beforeSequence, oldest first. Use Long.MAX_VALUE for the latest page. */
+    public List<Message> history(long conversationId, long beforeSequence, int limit) throws IOException {
+        return log.history(conversationId, beforeSequence, limit);
+    }
+
+    /** Messages that were dropped because the sink threw while delivering them. */
+    public long failedDeliveries() {
+        long failed = 0;
+        for (DeliveryWorker worker : workers) {
+            failed += worker.failedDeliveries();
+        }
+        return failed;
+    }
+
+    /** Waits until every message sent so far is in the log. */
+    public void flush() throws IOException, InterruptedException {
+        log.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            for (DeliveryWorker worker : workers) {
+                worker.stop();
+            }
+            for (Thread thread : workerThreads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    private static class Conversation {
+        final long id;
+        final long[] memberIds;
+        long nextSequence;
+
+        Conversation(long id, long[] memberIds, long nextSequence) {
+            this.id = id;
+            this.memberIds = memberIds;
+            this.nextSequence = nextSequence;
+        }
+
+        boolean isMember(long userId) {
+            for (long memberId : memberIds) {
+                if (memberId == userId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
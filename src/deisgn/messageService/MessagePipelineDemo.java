@@ -0,0 +1,125 @@
+package deisgn.messageService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sends messages from several threads into a set of group conversations and checks that every
+ * recipient saw each conversation in strict sequence order, then pages through history.
+ *
+ * Usage: MessagePipelineDemo [messagesPerSender] [senderThreads]
+ */
+public class MessagePipelineDemo {
+    public static void main(String[] args) throws Exception {
+        int perSender = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int senders = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        Path logDirectory = Files.createTempDirectory("messages");
+        try {
+            run(logDirectory, perSender, senders);
+        } finally {
+            deleteRecursively(logDirectory);
+        }
+    }
+
+    private static void run(Path logDirectory, int perSender, int senders) throws Exception {
+        int conversationCount = 64;
+        int membersPerConversation = 3;
+
+        ConcurrentHashMap<Long, Long> lastSeen = new ConcurrentHashMap<>();
+        AtomicLong delivered = new AtomicLong();
+        ConcurrentHashMap<Long, Long> lastIds = new ConcurrentHashMap<>();
+        AtomicLong outOfOrder = new AtomicLong();
+        AtomicLong idsOutOfOrder = new AtomicLong();
+        DeliverySink sink = (recipientId, batch) -> {
+            for (Message message : batch) {
+                // key: recipient and conversation; sequences must only go up (own messages are skipped)
+                long key = recipientId * 1_000_003L + message.getConversationId();
+                Long previous = lastSeen.put(key, message.getSequence());
+                if (previous != null && message.getSequence() <= previous) {
+                    outOfOrder.incrementAndGet();
+                }
+                // ids are time-sortable, so they must go up with the sequence too
+                Long previousId = lastIds.put(key, message.getId());
+                if (previousId != null && message.getId() <= previousId) {
+                    idsOutOfOrder.incrementAndGet();
+                }
+            }
+            delivered.addAndGet(batch.size());
+        };
+
+        long start;
+        long elapsed;
+        try (MessagePipeline pipeline = new MessagePipeline(logDirectory, 1, 4, sink)) {
+            for (long c = 0; c < conversationCount; c++) {
+                long[] members = new long[membersPerConversation];
+                for (int m = 0; m < membersPerConversation; m++) {
+                    members[m] = c * membersPerConversation + m;
+                }
+                pipeline.createConversation(c, members);
+            }
+
+            CountDownLatch done = new CountDownLatch(senders);
+            start = System.nanoTime();
+            for (int s = 0; s < senders; s++) {
+                int sender = s;
+                new Thread(() -> {
+                    try {
+                        for (int i = 0; i < perSender; i++) {
+                            long conversation = (sender + (long) i * senders) % conversationCount;
+                            pipeline.sendMessage(conversation, conversation * membersPerConversation + i % membersPerConversation,
+                                    "message " + i);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            done.await();
+            pipeline.flush();
+            elapsed = System.nanoTime() - start;
+
+            List<Message> latest = pipeline.history(7, Long.MAX_VALUE, 3);
+            System.out.println("Latest messages in conversation 7:");
+            for (Message message : latest) {
+                System.out.println("  #" + message.getSequence() + " from " + message.getSenderId() + ": " + message.getContent());
+            }
+            List<Message> older = pipeline.history(7, latest.get(0).getSequence(), 3);
+            System.out.println("Page before that starts at #" + older.get(0).getSequence());
+        }
+
+        long sent = (long) perSender * senders;
+        System.out.println("Messages sent and logged per second: " + (long) (sent / (elapsed / 1e9)));
+        System.out.println("Deliveries: " + delivered.get() + " (expected " + sent * (membersPerConversation - 1) + ")");
+        System.out.println("Out of order deliveries: " + outOfOrder.get());
+        System.out.println("Ids out of sequence order: " + idsOutOfOrder.get());
+
+        try (MessagePipeline reopened = new MessagePipeline(logDirectory, 1, 1, (recipientId, batch) -> { })) {
+            reopened.createConversation(7, 21, 22, 23);
+            Message next = reopened.sendMessage(7, 21, "after restart");
+            System.out.println("Sequence after restart: " + next.getSequence());
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+}
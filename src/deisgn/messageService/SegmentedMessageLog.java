@@ -0,0 +1,349 @@
+package deisgn.messageService;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only message log split into segment files named after their first global offset.
+ *
+ * A single writer thread drains the append queue in batches and writes each batch with one
+ * FileChannel write. Only then does it publish the batch to the per-conversation offset index,
+ * so history reads never see a record that is not on disk yet. The index maps
+ * (conversation, sequence) -> global offset in a primitive array, and it is rebuilt from the
+ * segments on startup.
+ *
+ * The append queue is bounded, so appends block when the disk falls behind. If a write fails,
+ * the writer records the error and stops; pending and later flushes and appends then fail
+ * with it instead of waiting forever.
+ *
+ * Record layout: [length:4][id:8][conversationId:8][sequence:8][senderId:8][utf-8 content].
+ */
+class SegmentedMessageLog implements Closeable {
+    private static final String SUFFIX = ".log";
+    private static final int RECORD_HEADER = 8 * 4;
+    private static final int MAX_BATCH = 4096;
+    private static final int QUEUE_CAPACITY = 1 << 16;
+    private static final Object STOP = new Object();
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ConcurrentSkipListMap<Long, FileChannel> segments = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, ConversationIndex> indexes = new ConcurrentHashMap<>();
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private volatile IOException failure;
+
+    // owned by the writer thread
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+    private final List<Message> pending = new ArrayList<>();
+    private long[] pendingOffsets = new long[MAX_BATCH];
+    private FileChannel active;
+    private long activeBase;
+    private long nextOffset;
+
+    SegmentedMessageLog(Path directory, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        replay();
+        this.writer = new Thread(this::writeLoop, "message-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /** Blocks while the queue is full. */
+    void append(Message message) throws IOException, InterruptedException {
+        enqueue(message);
+    }
+
+    /** Blocks until everything appended so far is written and forced to disk. */
+    void flush() throws IOException, InterruptedException {
+        Flush flush = new Flush();
+        enqueue(flush);
+        flush.await();
+        if (flush.error != null) {
+            throw new IOException("Message log writer failed", flush.error);
+        }
+    }
+
+    /** Number of messages of the conversation that are already in the log. */
+    long length(long conversationId) {
+        ConversationIndex index = indexes.get(conversationId);
+        return index == null ? 0 : index.count();
+    }
+
+    /** Up to limit messages with sequence < beforeSequence, oldest first. */
+    List<Message> history(long conversationId, long beforeSequence, int limit) throws IOException {
+        ConversationIndex index = indexes.get(conversationId);
+        List<Message> messages = new ArrayList<>();
+        if (index == null) {
+            return messages;
+        }
+        for (long offset : index.offsets(beforeSequence, limit)) {
+            messages.add(read(offset));
+        }
+        return messages;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            while (writer.isAlive() && !queue.offer(STOP, 10, TimeUnit.MILLISECONDS)) {
+                // the writer is still draining a full queue
+            }
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (FileChannel channel : segments.values()) {
+            channel.close();
+        }
+    }
+
+    // The writer publishes the failure before draining the queue, and callers re-check it after
+    // enqueueing, so an item is either drained by the failing writer or its caller sees the error.
+    private void enqueue(Object item) throws IOException, InterruptedException {
+        checkFailure();
+        while (!queue.offer(item, 10, TimeUnit.MILLISECONDS)) {
+            checkFailure();
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        IOException e = failure;
+        if (e != null) {
+            throw new IOException("Message log writer failed", e);
+        }
+    }
+
+    private Message read(long offset) throws IOException {
+        Map.Entry<Long, FileChannel> segment = segments.floorEntry(offset);
+        long position = offset - segment.getKey();
+        ByteBuffer length = ByteBuffer.allocate(4);
+        readFully(segment.getValue(), length, position);
+        ByteBuffer record = ByteBuffer.allocate(length.getInt(0));
+        readFully(segment.getValue(), record, position + 4);
+        record.flip();
+        return decode(record);
+    }
+
+    private void writeLoop() {
+        List<Object> batch = new ArrayList<>(MAX_BATCH);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+                for (Object item : batch) {
+                    if (item == STOP) {
+                        writeBuffer();
+                        active.force(false);
+                        return;
+                    }
+                    if (item instanceof Flush) {
+                        writeBuffer();
+                        active.force(false);
+                        ((Flush) item).countDown();
+                    } else {
+                        encode((Message) item);
+                    }
+                }
+                writeBuffer();
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            IOException error = e instanceof IOException ? (IOException) e : new IOException(e);
+            failure = error;
+            // flushes already counted down succeeded; failing them again is a no-op
+            failFlushes(batch, error);
+            batch.clear();
+            queue.drainTo(batch);
+            failFlushes(batch, error);
+        }
+    }
+
+    private static void failFlushes(List<Object> items, IOException error) {
+        for (Object item : items) {
+            if (item instanceof Flush) {
+                ((Flush) item).fail(error);
+            }
+        }
+    }
+
+    private void encode(Message message) throws IOException {
+        byte[] content = message.getContent().getBytes(StandardCharsets.UTF_8);
+        int size = 4 + RECORD_HEADER + content.length;
+        long pendingBytes = buffer.position();
+        if (nextOffset + pendingBytes - activeBase + size > segmentSize && nextOffset + pendingBytes > activeBase) {
+            writeBuffer();
+            roll();
+        }
+        if (buffer.remaining() < size) {
+            writeBuffer();
+            if (buffer.capacity() < size) {
+                buffer = ByteBuffer.allocateDirect(size);
+            }
+        }
+        if (pending.size() == pendingOffsets.length) {
+            pendingOffsets = Arrays.copyOf(pendingOffsets, pendingOffsets.length * 2);
+        }
+        pendingOffsets[pending.size()] = nextOffset + buffer.position();
+        pending.add(message);
+        buffer.putInt(RECORD_HEADER + content.length)
+                .putLong(message.getId())
+                .putLong(message.getConversationId())
+                .putLong(message.getSequence())
+                .putLong(message.getSenderId())
+                .put(content);
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        nextOffset += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            active.write(buffer);
+        }
+        buffer.clear();
+        for (int i = 0; i < pending.size(); i++) {
+            Message message = pending.get(i);
+            indexes.computeIfAbsent(message.getConversationId(), id -> new ConversationIndex())
+                    .add(message.getSequence(), pendingOffsets[i]);
+        }
+        pending.clear();
+    }
+
+    private void roll() throws IOException {
+        activeBase = nextOffset;
+        active = openSegment(activeBase);
+        segments.put(activeBase, active);
+    }
+
+    private FileChannel openSegment(long base) throws IOException {
+        return FileChannel.open(directory.resolve(String.format("%020d%s", base, SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private void replay() throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                files.put(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), file);
+            }
+        }
+        if (files.isEmpty()) {
+            roll();
+            return;
+        }
+        for (Map.Entry<Long, Path> file : files.entrySet()) {
+            FileChannel channel = openSegment(file.getKey());
+            segments.put(file.getKey(), channel);
+            activeBase = file.getKey();
+            active = channel;
+            long position = 0;
+            long size = channel.size();
+            ByteBuffer length = ByteBuffer.allocate(4);
+            while (position + 4 <= size) {
+                length.clear();
+                readFully(channel, length, position);
+                int recordLength = length.getInt(0);
+                if (recordLength < RECORD_HEADER || position + 4 + recordLength > size) {
+                    break; // torn write at the tail
+                }
+                ByteBuffer record = ByteBuffer.allocate(recordLength);
+                readFully(channel, record, position + 4);
+                record.flip();
+                Message message = decode(record);
+                indexes.computeIfAbsent(message.getConversationId(), id -> new ConversationIndex())
+                        .add(message.getSequence(), activeBase + position);
+                position += 4 + recordLength;
+            }
+            if (position < size) {
+                channel.truncate(position);
+            }
+            nextOffset = activeBase + position;
+        }
+        active.position(nextOffset - activeBase);
+    }
+
+    private static Message decode(ByteBuffer record) {
+        long id = record.getLong();
+        long conversationId = record.getLong();
+        long sequence = record.getLong();
+        long senderId = record.getLong();
+        byte[] content = new byte[record.remaining()];
+        record.get(content);
+        return new Message(id, conversationId, sequence, senderId, new String(content, StandardCharsets.UTF_8));
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of segment at " + position);
+            }
+            position += read;
+        }
+    }
+
+    private static class Flush extends CountDownLatch {
+        // written before countDown(), so await() makes it visible
+        IOException error;
+
+        Flush() {
+            super(1);
+        }
+
+        void fail(IOException e) {
+            if (getCount() > 0) {
+                error = e;
+                countDown();
+            }
+        }
+    }
+
+    private static class ConversationIndex {
+        private long[] offsets = new long[16];
+        private int count;
+
+        synchronized void add(long sequence, long offset) {
+            if (sequence != count) {
+                throw new IllegalStateException("Expected sequence " + count + " but got " + sequence);
+            }
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = offset;
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized long[] offsets(long beforeSequence, int limit) {
+            int end = (int) Math.min(beforeSequence, count);
+            int start = Math.max(0, end - limit);
+            return Arrays.copyOfRange(offsets, start, Math.max(start, end));
+        }
+    }
+}
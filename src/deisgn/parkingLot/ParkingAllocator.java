@@ -0,0 +1,127 @@
+package deisgn.parkingLot;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free spot allocator shared by every entry and exit gate.
+ *
+ * Each floor keeps one SpotBitset per spot type. park() walks the spot types the vehicle fits,
+ * starting on the gate's own floor and falling back floor by floor, and claims a bit with a
+ * CAS. Every spot also has a global index, and the ticket id carries that index in its low
+ * bits. So the exit lookup is one slot in a primitive table (spot -> active ticket), with no
+ * hashing and no boxing. Clearing that slot with a CAS makes a second exit on the same ticket
+ * fail instead of freeing someone else's spot.
+ */
+public class ParkingAllocator {
+    public static final long NO_SPOT = -1;
+
+    private static final int SPOT_BITS = 24;
+    private static final long SPOT_MASK = (1L << SPOT_BITS) - 1;
+    private static final ParkingSpotType[] SPOT_TYPES = ParkingSpotType.values();
+
+    private final SpotBitset[][] floors;
+    private final int[][] firstSpot;
+    private final int spotsPerFloorTotal;
+    private final AtomicLongArray activeTickets;
+    private final AtomicLongArray entryTimes;
+    private final AtomicLong ticketSequence = new AtomicLong();
+
+    /** spotsPerFloor[type.ordinal()] is the number of spots of that type on every floor. */
+    public ParkingAllocator(int floorCount, int[] spotsPerFloor) {
+        if (spotsPerFloor.length != SPOT_TYPES.length) {
+            throw new IllegalArgumentException("Expected a spot count for each of " + SPOT_TYPES.length + " spot types");
+        }
+        if (floorCount <= 0) {
+            throw new IllegalArgumentException("Floor count must be positive: " + floorCount);
+        }
+        long perFloor = 0;
+        for (int type = 0; type < SPOT_TYPES.length; type++) {
+            if (spotsPerFloor[type] < 0) {
+                throw new IllegalArgumentException("Spot count must not be negative: " + spotsPerFloor[type]
+                        + " for " + SPOT_TYPES[type]);
+            }
+            perFloor += spotsPerFloor[type];
+        }
+        if (perFloor * floorCount > SPOT_MASK) {
+            throw new IllegalArgumentException("Too many spots: " + perFloor * floorCount);
+        }
+        floors = new SpotBitset[floorCount][SPOT_TYPES.length];
+        firstSpot = new int[floorCount][SPOT_TYPES.length];
+        int total = 0;
+        for (int floor = 0; floor < floorCount; floor++) {
+            for (int type = 0; type < SPOT_TYPES.length; type++) {
+                floors[floor][type] = new SpotBitset(spotsPerFloor[type]);
+                firstSpot[floor][type] = total;
+                total += spotsPerFloor[type];
+            }
+        }
+        spotsPerFloorTotal = (int) perFloor;
+        activeTickets = new AtomicLongArray(total);
+        entryTimes = new AtomicLongArray(total);
+    }
+
+    /** Returns a ticket id, or NO_SPOT when the lot has no spot this vehicle fits. */
+    public long park(VehicleType vehicle, int gateId) {
+        int floorCount = floors.length;
+        int homeFloor = Math.floorMod(gateId, floorCount);
+        for (ParkingSpotType type : vehicle.fits()) {
+            for (int n = 0; n < floorCount; n++) {
+                int floor = (homeFloor + n) % floorCount;
+                int index = floors[floor][type.ordinal()].allocate(gateId);
+                if (index >= 0) {
+                    int spot = firstSpot[floor][type.ordinal()] + index;
+                    long ticketId = (ticketSequence.incrementAndGet() << SPOT_BITS) | spot;
+                    entryTimes.set(spot, System.currentTimeMillis());
+                    activeTickets.set(spot, ticketId);
+                    return ticketId;
+                }
+            }
+        }
+        return NO_SPOT;
+    }
+
+    /**
+     * Frees the spot behind a ticket and returns how long the vehicle was parked in millis,
+     * or -1 if the ticket is unknown or was already used to exit.
+     */
+    public long exit(long ticketId) {
+        if (ticketId <= 0) {
+            return -1;
+        }
+        int spot = (int) (ticketId & SPOT_MASK);
+        if (spot >= activeTickets.length()) {
+            return -1;
+        }
+        long entryTime = entryTimes.get(spot);
+        if (!activeTickets.compareAndSet(spot, ticketId, 0)) {
+            return -1;
+        }
+        release(spot);
+        return System.currentTimeMillis() - entryTime;
+    }
+
+    public int freeSpots(int floor, ParkingSpotType type) {
+        return floors[floor][type.ordinal()].freeCount();
+    }
+
+    public int totalSpots() {
+        return activeTickets.length();
+    }
+
+    /** Global index of the spot a ticket refers to, for display boards and tests. */
+    public static int spotOf(long ticketId) {
+        return (int) (ticketId & SPOT_MASK);
+    }
+
+    private void release(int spot) {
+        // every floor has the same layout, so the floor is a division away
+        int floor = spot / spotsPerFloorTotal;
+        for (int type = SPOT_TYPES.length - 1; type >= 0; type--) {
+            if (spot >= firstSpot[floor][type]) {
+                floors[floor][type].release(spot - firstSpot[floor][type]);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package deisgn.parkingLot;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs many gates against one small lot so that spots are fought over constantly. Every gate
+ * marks the spot it was given in an owner table with a CAS; if a spot were ever handed out
+ * twice, the second CAS would fail and count as a double booking.
+ *
+ * Usage: ParkingLotStressTest [gates] [operationsPerGate]
+ */
+public class ParkingLotStressTest {
+    private static final VehicleType[] VEHICLES = VehicleType.values();
+
+    public static void main(String[] args) throws InterruptedException {
+        int gates = args.length > 0 ? Integer.parseInt(args[0]) : 48;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int floorCount = 4;
+        ParkingAllocator allocator = new ParkingAllocator(floorCount, new int[]{10, 25, 8, 5});
+
+        AtomicIntegerArray owners = new AtomicIntegerArray(allocator.totalSpots());
+        AtomicLong doubleBookings = new AtomicLong();
+        AtomicLong failedExits = new AtomicLong();
+        AtomicLong parked = new AtomicLong();
+        AtomicLong turnedAway = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(gates);
+
+        for (int g = 0; g < gates; g++) {
+            int gateId = g;
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long[] held = new long[8];
+                int heldCount = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < operations; i++) {
+                    if (heldCount < held.length && (heldCount == 0 || random.nextBoolean())) {
+                        long ticket = allocator.park(VEHICLES[random.nextInt(VEHICLES.length)], gateId);
+                        if (ticket == ParkingAllocator.NO_SPOT) {
+                            turnedAway.incrementAndGet();
+                            continue;
+                        }
+                        if (!owners.compareAndSet(ParkingAllocator.spotOf(ticket), 0, gateId + 1)) {
+                            doubleBookings.incrementAndGet();
+                        }
+                        held[heldCount++] = ticket;
+                        parked.incrementAndGet();
+                    } else {
+                        int pick = random.nextInt(heldCount);
+                        long ticket = held[pick];
+                        held[pick] = held[--heldCount];
+                        owners.set(ParkingAllocator.spotOf(ticket), 0);
+                        if (allocator.exit(ticket) < 0) {
+                            failedExits.incrementAndGet();
+                        }
+                        if (allocator.exit(ticket) >= 0) {
+                            doubleBookings.incrementAndGet(); // reusing a ticket must never free a spot again
+                        }
+                    }
+                }
+                for (int i = 0; i < heldCount; i++) {
+                    owners.set(ParkingAllocator.spotOf(held[i]), 0);
+                    if (allocator.exit(held[i]) < 0) {
+                        failedExits.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            }, "gate-" + g).start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+
+        int free = 0;
+        for (int floor = 0; floor < floorCount; floor++) {
+            for (ParkingSpotType type : ParkingSpotType.values()) {
+                free += allocator.freeSpots(floor, type);
+            }
+        }
+        long operationsDone = (long) gates * operations;
+        System.out.println("Gates: " + gates + ", spots: " + allocator.totalSpots());
+        System.out.println("Parked: " + parked.get() + ", turned away: " + turnedAway.get());
+        System.out.println("Operations per second: " + (long) (operationsDone / (elapsed / 1e9)));
+        System.out.println("Double bookings: " + doubleBookings.get());
+        System.out.println("Failed exits: " + failedExits.get());
+        System.out.println("Spots free at the end: " + free + "/" + allocator.totalSpots());
+        if (doubleBookings.get() != 0 || failedExits.get() != 0 || free != allocator.totalSpots()) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+        System.out.println("PASSED");
+    }
+}
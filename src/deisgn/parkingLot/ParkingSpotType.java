@@ -0,0 +1,8 @@
+package deisgn.parkingLot;
+
+public enum ParkingSpotType {
+    MOTORBIKE,
+    COMPACT,
+    LARGE,
+    ELECTRIC
+}
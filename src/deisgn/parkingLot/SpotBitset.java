@@ -0,0 +1,69 @@
+package deisgn.parkingLot;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Free-spot bitset for one spot type on one floor; a set bit is a free spot. Allocation finds
+ * a non-zero word and clears its lowest set bit with a CAS, so gates never block each other
+ * and a spot can only be handed out once.
+ */
+class SpotBitset {
+    private final AtomicLongArray words;
+    private final int size;
+
+    SpotBitset(int size) {
+        this.size = size;
+        this.words = new AtomicLongArray((size + 63) / 64);
+        for (int i = 0; i < words.length(); i++) {
+            int bits = Math.min(64, size - i * 64);
+            words.set(i, bits == 64 ? -1L : (1L << bits) - 1);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the allocated index, or -1 when every spot is taken. startWord spreads gates apart
+     * and may be any int, including a negative one.
+     */
+    int allocate(int startWord) {
+        int count = words.length();
+        for (int n = 0; n < count; n++) {
+            int i = Math.floorMod(startWord + n, count);
+            long word = words.get(i);
+            while (word != 0) {
+                long bit = Long.lowestOneBit(word);
+                if (words.compareAndSet(i, word, word & ~bit)) {
+                    return i * 64 + Long.numberOfTrailingZeros(bit);
+                }
+                word = words.get(i);
+            }
+        }
+        return -1;
+    }
+
+    void release(int index) {
+        int i = index >>> 6;
+        long bit = 1L << (index & 63);
+        long word = words.get(i);
+        while (true) {
+            if ((word & bit) != 0) {
+                throw new IllegalStateException("Spot " + index + " is already free");
+            }
+            if (words.compareAndSet(i, word, word | bit)) {
+                return;
+            }
+            word = words.get(i);
+        }
+    }
+
+    int freeCount() {
+        int free = 0;
+        for (int i = 0; i < words.length(); i++) {
+            free += Long.bitCount(words.get(i));
+        }
+        return free;
+    }
+}
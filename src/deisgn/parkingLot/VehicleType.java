@@ -0,0 +1,19 @@
+package deisgn.parkingLot;
+
+public enum VehicleType {
+    MOTORBIKE(ParkingSpotType.MOTORBIKE),
+    CAR(ParkingSpotType.COMPACT, ParkingSpotType.LARGE),
+    TRUCK(ParkingSpotType.LARGE),
+    ELECTRIC(ParkingSpotType.ELECTRIC, ParkingSpotType.COMPACT, ParkingSpotType.LARGE);
+
+    private final ParkingSpotType[] fits;
+
+    VehicleType(ParkingSpotType... fits) {
+        this.fits = fits;
+    }
+
+    /** Spot types this vehicle can use, most preferred first. */
+    ParkingSpotType[] fits() {
+        return fits;
+    }
+}
@@ -0,0 +1,21 @@
+package deisgn.rideHailing;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Position fields and the cell slot are guarded by the stripe lock of the cell holding the
+ * driver; cellKey and removed are only changed while holding the driver's own monitor too.
+ */
+class DriverState {
+    final long id;
+    final AtomicBoolean available = new AtomicBoolean(true);
+    double lat;
+    double lng;
+    long cellKey = -1;
+    int slot = -1;
+    boolean removed;
+
+    DriverState(long id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,215 @@
+package deisgn.rideHailing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent spatial index of drivers on a fixed lat/lng grid (the same idea as a geohash
+ * prefix of fixed length). Each cell is guarded by one of a fixed set of striped locks, so
+ * location updates in different parts of the city never contend. Most pings stay in the same
+ * cell and only overwrite two doubles; moving between cells locks both stripes in index order.
+ *
+ * Nearest-driver queries scan rings of cells around the rider and stop as soon as no cell in
+ * the next ring can hold anything closer than the k-th candidate found so far.
+ */
+public class GeoGridIndex {
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    private static final int STRIPES = 1024;
+
+    private final double cellDegrees;
+    private final int latCells;
+    private final int lngCells;
+    private final Object[] locks = new Object[STRIPES];
+    private final ConcurrentHashMap<Long, Cell> cells = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, DriverState> drivers = new ConcurrentHashMap<>();
+
+    public GeoGridIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.latCells = (int) Math.ceil(180 / cellDegrees);
+        this.lngCells = (int) Math.ceil(360 / cellDegrees);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public void updateLocation(long driverId, double lat, double lng) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new IllegalArgumentException("Invalid coordinates: " + lat + ", " + lng);
+        }
+        DriverState driver = drivers.computeIfAbsent(driverId, DriverState::new);
+        long newKey = cellKey(latIndex(lat), lngIndex(lng));
+        // pings from one driver are serialised; other drivers only meet us on the stripe locks
+        synchronized (driver) {
+            if (driver.removed) {
+                return;
+            }
+            long oldKey = driver.cellKey;
+            int newStripe = stripe(newKey);
+            if (oldKey == newKey) {
+                synchronized (locks[newStripe]) {
+                    driver.lat = lat;
+                    driver.lng = lng;
+                }
+                return;
+            }
+            int oldStripe = oldKey < 0 ? newStripe : stripe(oldKey);
+            Cell target = cells.computeIfAbsent(newKey, key -> new Cell());
+            synchronized (locks[Math.min(oldStripe, newStripe)]) {
+                synchronized (locks[Math.max(oldStripe, newStripe)]) {
+                    if (oldKey >= 0) {
+                        cells.get(oldKey).remove(driver);
+                    }
+                    driver.lat = lat;
+                    driver.lng = lng;
+                    driver.cellKey = newKey;
+                    target.add(driver);
+                }
+            }
+        }
+    }
+
+    public void removeDriver(long driverId) {
+        DriverState driver = drivers.remove(driverId);
+        if (driver == null) {
+            return;
+        }
+        synchronized (driver) {
+            driver.removed = true;
+            if (driver.cellKey >= 0) {
+                synchronized (locks[stripe(driver.cellKey)]) {
+                    cells.get(driver.cellKey).remove(driver);
+                    driver.cellKey = -1;
+                }
+            }
+        }
+    }
+
+    DriverState driver(long driverId) {
+        return drivers.get(driverId);
+    }
+
+    /** Up to k available drivers within maxRadiusKm, closest first. */
+    public List<Candidate> nearestAvailable(double lat, double lng, int k, double maxRadiusKm) {
+        PriorityQueue<Candidate> best = new PriorityQueue<>(k, (a, b) -> Double.compare(b.distanceKm, a.distanceKm));
+        int centerLat = latIndex(lat);
+        int centerLng = lngIndex(lng);
+        // a cell r rings away is at least r - 1 full cells from the rider in either direction
+        double ringWidthKm = cellDegrees * KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(Math.abs(lat) + cellDegrees)), 0.01);
+        int maxRing = (int) Math.ceil(maxRadiusKm / ringWidthKm) + 1;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (best.size() == k && best.peek().distanceKm <= (ring - 1) * ringWidthKm) {
+                break;
+            }
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                int latIndex = centerLat + dLat;
+                if (latIndex < 0 || latIndex >= latCells) {
+                    continue;
+                }
+                int step = Math.abs(dLat) == ring ? 1 : 2 * ring;
+                for (int dLng = -ring; dLng <= ring; dLng += step) {
+                    int lngIndex = Math.floorMod(centerLng + dLng, lngCells);
+                    scanCell(cellKey(latIndex, lngIndex), lat, lng, k, maxRadiusKm, best);
+                }
+            }
+        }
+        Candidate[] sorted = best.toArray(new Candidate[0]);
+        Arrays.sort(sorted, (a, b) -> Double.compare(a.distanceKm, b.distanceKm));
+        return new ArrayList<>(Arrays.asList(sorted));
+    }
+
+    private void scanCell(long key, double lat, double lng, int k, double maxRadiusKm, PriorityQueue<Candidate> best) {
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            return;
+        }
+        synchronized (locks[stripe(key)]) {
+            for (int i = 0; i < cell.size; i++) {
+                DriverState driver = cell.drivers[i];
+                if (!driver.available.get()) {
+                    continue;
+                }
+                double distance = distanceKm(lat, lng, driver.lat, driver.lng);
+                if (distance > maxRadiusKm) {
+                    continue;
+                }
+                if (best.size() < k) {
+                    best.add(new Candidate(driver, distance));
+                } else if (distance < best.peek().distanceKm) {
+                    best.poll();
+                    best.add(new Candidate(driver, distance));
+                }
+            }
+        }
+    }
+
+    // equirectangular approximation, accurate to well under 1% at city distances
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double x = Math.toRadians(lng2 - lng1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_KM;
+    }
+
+    private int latIndex(double lat) {
+        return Math.min((int) ((lat + 90) / cellDegrees), latCells - 1);
+    }
+
+    private int lngIndex(double lng) {
+        return Math.min((int) ((lng + 180) / cellDegrees), lngCells - 1);
+    }
+
+    private long cellKey(int latIndex, int lngIndex) {
+        return (long) latIndex * lngCells + lngIndex;
+    }
+
+    private int stripe(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 54) & (STRIPES - 1);
+    }
+
+    public static class Candidate {
+        private final DriverState driver;
+        private final double distanceKm;
+
+        Candidate(DriverState driver, double distanceKm) {
+            this.driver = driver;
+            this.distanceKm = distanceKm;
+        }
+
+        DriverState driver() {
+            return driver;
+        }
+
+        public long getDriverId() {
+            return driver.id;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+
+    private static class Cell {
+        DriverState[] drivers = new DriverState[4];
+        int size;
+
+        void add(DriverState driver) {
+            if (size == drivers.length) {
+                drivers = Arrays.copyOf(drivers, size * 2);
+            }
+            driver.slot = size;
+            drivers[size++] = driver;
+        }
+
+        void remove(DriverState driver) {
+            DriverState last = drivers[--size];
+            drivers[driver.slot] = last;
+            last.slot = driver.slot;
+            drivers[size] = null;
+            driver.slot = -1;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package deisgn.rideHailing;
+
+import java.util.List;
+
+/**
+ * Matches a rider to the closest available driver. Candidates come from the grid index and
+ * are claimed with a CAS on the driver's availability flag, so two riders racing for the same
+ * driver never both get them; the loser simply moves on to its next candidate.
+ */
+public class MatchingEngine {
+    private static final int CANDIDATES = 8;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final GeoGridIndex index;
+    private final double maxRadiusKm;
+
+    public MatchingEngine(GeoGridIndex index, double maxRadiusKm) {
+        this.index = index;
+        this.maxRadiusKm = maxRadiusKm;
+    }
+
+    /** Returns the claimed driver id, or -1 if nobody is available within range. */
+    public long matchDriver(double riderLat, double riderLng) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            List<GeoGridIndex.Candidate> candidates = index.nearestAvailable(riderLat, riderLng, CANDIDATES, maxRadiusKm);
+            if (candidates.isEmpty()) {
+                return -1;
+            }
+            for (GeoGridIndex.Candidate candidate : candidates) {
+                if (candidate.driver().available.compareAndSet(true, false)) {
+                    return candidate.getDriverId();
+                }
+            }
+        }
+        return -1;
+    }
+
+    /** Makes a driver matchable again, e.g. when their ride ends. */
+    public void releaseDriver(long driverId) {
+        DriverState driver = index.driver(driverId);
+        if (driver != null) {
+            driver.available.set(true);
+        }
+    }
+}
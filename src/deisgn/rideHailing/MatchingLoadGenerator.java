@@ -0,0 +1,117 @@
+package deisgn.rideHailing;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays synthetic GPS pings (each driver does a random walk inside a city-sized box) while
+ * rider threads request matches, then reports ping throughput and match latency percentiles.
+ *
+ * Usage: MatchingLoadGenerator [drivers] [pingThreads] [riderThreads] [seconds]
+ */
+public class MatchingLoadGenerator {
+    private static final double MIN_LAT = 12.85;
+    private static final double MAX_LAT = 13.10;
+    private static final double MIN_LNG = 77.45;
+    private static final double MAX_LNG = 77.75;
+    private static final int MAX_SAMPLES_PER_RIDER = 1 << 20;
+
+    public static void main(String[] args) throws InterruptedException {
+        int driverCount = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int pingThreads = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int riderThreads = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        GeoGridIndex index = new GeoGridIndex(0.005);
+        MatchingEngine engine = new MatchingEngine(index, 5.0);
+        double[] lat = new double[driverCount];
+        double[] lng = new double[driverCount];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < driverCount; i++) {
+            lat[i] = random.nextDouble(MIN_LAT, MAX_LAT);
+            lng[i] = random.nextDouble(MIN_LNG, MAX_LNG);
+            index.updateLocation(i, lat[i], lng[i]);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong pings = new AtomicLong();
+        AtomicLong unmatched = new AtomicLong();
+        long[][] samples = new long[riderThreads][];
+        int[] sampleCounts = new int[riderThreads];
+        CountDownLatch done = new CountDownLatch(pingThreads + riderThreads);
+
+        for (int t = 0; t < pingThreads; t++) {
+            int from = driverCount * t / pingThreads;
+            int to = driverCount * (t + 1) / pingThreads;
+            new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                long sent = 0;
+                while (running.get()) {
+                    for (int i = from; i < to; i++) {
+                        // roughly 10 m per ping at city driving speeds
+                        lat[i] = clamp(lat[i] + rnd.nextDouble(-0.0001, 0.0001), MIN_LAT, MAX_LAT);
+                        lng[i] = clamp(lng[i] + rnd.nextDouble(-0.0001, 0.0001), MIN_LNG, MAX_LNG);
+                        index.updateLocation(i, lat[i], lng[i]);
+                    }
+                    sent += to - from;
+                }
+                pings.addAndGet(sent);
+                done.countDown();
+            }, "pings-" + t).start();
+        }
+
+        for (int t = 0; t < riderThreads; t++) {
+            int rider = t;
+            new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                long[] latencies = new long[MAX_SAMPLES_PER_RIDER];
+                int count = 0;
+                while (running.get() && count < latencies.length) {
+                    double riderLat = rnd.nextDouble(MIN_LAT, MAX_LAT);
+                    double riderLng = rnd.nextDouble(MIN_LNG, MAX_LNG);
+                    long start = System.nanoTime();
+                    long driverId = engine.matchDriver(riderLat, riderLng);
+                    latencies[count++] = System.nanoTime() - start;
+                    if (driverId < 0) {
+                        unmatched.incrementAndGet();
+                    } else {
+                        engine.releaseDriver(driverId); // trip finishes instantly, keep the pool size steady
+                    }
+                }
+                samples[rider] = latencies;
+                sampleCounts[rider] = count;
+                done.countDown();
+            }, "riders-" + t).start();
+        }
+
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        done.await();
+
+        int total = 0;
+        for (int count : sampleCounts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int pos = 0;
+        for (int t = 0; t < riderThreads; t++) {
+            System.arraycopy(samples[t], 0, all, pos, sampleCounts[t]);
+            pos += sampleCounts[t];
+        }
+        Arrays.sort(all);
+        System.out.println("Drivers: " + driverCount);
+        System.out.println("Location updates per second: " + pings.get() / seconds);
+        System.out.println("Matches per second: " + total / seconds + " (unmatched " + unmatched.get() + ")");
+        if (total > 0) {
+            System.out.println("Match latency p50 (us): " + all[total / 2] / 1000.0);
+            System.out.println("Match latency p99 (us): " + all[(int) (total * 0.99)] / 1000.0);
+        }
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,16 @@
+package deisgn.socialMedia;
+
+/** Walks a sorted posting list. doc() is Long.MAX_VALUE once the list is exhausted. */
+interface DocCursor {
+    long EXHAUSTED = Long.MAX_VALUE;
+
+    long doc();
+
+    int cost();
+
+    /** Moves to the next doc; false when exhausted. */
+    boolean next();
+
+    /** Moves to the first doc >= target; false when exhausted. */
+    boolean advance(long target);
+}
@@ -0,0 +1,29 @@
+package deisgn.socialMedia;
+
+import java.util.List;
+
+public class FeedPage {
+    public static final long START = Long.MAX_VALUE;
+    public static final long END = -1;
+
+    private final List<Tweet> tweets;
+    private final long nextCursor;
+
+    FeedPage(List<Tweet> tweets, long nextCursor) {
+        this.tweets = tweets;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Tweet> getTweets() {
+        return tweets;
+    }
+
+    /** Pass this back to getNewsFeed for the next page; END when there is nothing older. */
+    public long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != END;
+    }
+}
@@ -0,0 +1,208 @@
+package deisgn.socialMedia;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Incremental inverted index over long doc ids, where a larger id means a more recent doc.
+ *
+ * New docs go into a small LiveSegment and are searchable immediately. When it fills up it
+ * is frozen into an immutable Segment of compressed posting lists, and a background thread
+ * merges adjacent segments so their number stays bounded. Readers take the current State
+ * without locking; writers and the merger swap in a new one.
+ */
+public class InvertedIndex implements Closeable {
+    private static final int DEFAULT_MAX_LIVE_DOCS = 4096;
+    private static final int DEFAULT_MAX_SEGMENTS = 8;
+
+    private final int maxLiveDocs;
+    private final int maxSegments;
+    private final ExecutorService merger;
+    private volatile State state = new State(Collections.emptyList(), new LiveSegment());
+    private boolean mergeScheduled;
+
+    public InvertedIndex() {
+        this(DEFAULT_MAX_LIVE_DOCS, DEFAULT_MAX_SEGMENTS);
+    }
+
+    public InvertedIndex(int maxLiveDocs, int maxSegments) {
+        this.maxLiveDocs = maxLiveDocs;
+        this.maxSegments = maxSegments;
+        this.merger = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "segment-merger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void add(long docId, String text) {
+        List<String> terms = Tokenizer.distinctTerms(text);
+        synchronized (this) {
+            State current = state;
+            current.live.add(docId, terms);
+            if (current.live.docCount() >= maxLiveDocs) {
+                List<Segment> segments = new ArrayList<>(current.segments);
+                segments.add(current.live.freeze());
+                state = new State(Collections.unmodifiableList(segments), new LiveSegment());
+                scheduleMerge();
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of the k most recent docs containing every term of the query, newest first.
+     *
+     * Segments are searched from the newest to the oldest, and each segment from its newest
+     * block backwards, so the search stops as soon as nothing older can beat the k-th result.
+     */
+    public long[] search(String query, int k) {
+        List<String> terms = Tokenizer.distinctTerms(query);
+        if (terms.isEmpty() || k <= 0) {
+            return new long[0];
+        }
+        State current = state;
+        PriorityQueue<Long> topK = new PriorityQueue<>(k);
+        current.live.collectNewest(terms, topK, k);
+        List<DocCursor> cursors = new ArrayList<>(terms.size());
+        List<Segment> segments = current.segments;
+        for (int s = segments.size() - 1; s >= 0; s--) {
+            Segment segment = segments.get(s);
+            // segments can overlap slightly when tweets were indexed out of id order, so an
+            // older one is skipped rather than ending the loop
+            if (topK.size() < k || segment.maxDoc() > topK.peek()) {
+                searchNewestFirst(segment, terms, cursors, topK, k);
+            }
+        }
+        long[] result = new long[topK.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = topK.poll();
+        }
+        return result;
+    }
+
+    public int segmentCount() {
+        return state.segments.size();
+    }
+
+    @Override
+    public void close() {
+        merger.shutdownNow();
+    }
+
+    // Walks the rarest term's blocks from the newest one back. Each block bounds a window of
+    // ids, and the other terms jump into that window through their skip tables.
+    private static void searchNewestFirst(Segment segment, List<String> terms, List<DocCursor> cursors,
+                                          PriorityQueue<Long> topK, int k) {
+        List<PostingList> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            PostingList list = segment.postings(term);
+            if (list == null) {
+                return;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::count));
+        PostingList lead = lists.get(0);
+        long upper = DocCursor.EXHAUSTED;
+        for (int block = lead.blockCount() - 1; block >= 0; block--) {
+            long lower = lead.blockFirstDoc(block);
+            cursors.clear();
+            boolean matchable = true;
+            for (PostingList list : lists) {
+                DocCursor cursor = list.cursor();
+                if (!cursor.advance(lower)) {
+                    matchable = false;
+                    break;
+                }
+                cursors.add(cursor);
+            }
+            if (matchable) {
+                intersect(cursors, topK, k, upper);
+            }
+            // everything left in this segment is below lower
+            if (topK.size() == k && topK.peek() >= lower) {
+                return;
+            }
+            upper = lower;
+        }
+    }
+
+    // leapfrog intersection over positioned cursors: the rarest term leads, the others skip
+    // ahead to its candidate. Docs at or above upper are left alone.
+    private static void intersect(List<DocCursor> cursors, PriorityQueue<Long> topK, int k, long upper) {
+        cursors.sort(Comparator.comparingInt(DocCursor::cost));
+        DocCursor lead = cursors.get(0);
+        long candidate = lead.doc();
+        outer:
+        while (candidate < upper) {
+            for (int i = 1; i < cursors.size(); i++) {
+                DocCursor cursor = cursors.get(i);
+                if (!cursor.advance(candidate)) {
+                    return;
+                }
+                if (cursor.doc() > candidate) {
+                    candidate = lead.advance(cursor.doc()) ? lead.doc() : DocCursor.EXHAUSTED;
+                    continue outer;
+                }
+            }
+            offer(topK, k, candidate);
+            candidate = lead.next() ? lead.doc() : DocCursor.EXHAUSTED;
+        }
+    }
+
+    static void offer(PriorityQueue<Long> topK, int k, long doc) {
+        if (topK.size() < k) {
+            topK.add(doc);
+        } else if (doc > topK.peek()) {
+            topK.poll();
+            topK.add(doc);
+        }
+    }
+
+    private synchronized void scheduleMerge() {
+        if (!mergeScheduled && state.segments.size() > maxSegments) {
+            mergeScheduled = true;
+            merger.execute(this::mergeOnce);
+        }
+    }
+
+    private void mergeOnce() {
+        List<Segment> segments = state.segments;
+        int best = 0;
+        for (int i = 1; i + 1 < segments.size(); i++) {
+            int size = segments.get(i).docCount() + segments.get(i + 1).docCount();
+            if (size < segments.get(best).docCount() + segments.get(best + 1).docCount()) {
+                best = i;
+            }
+        }
+        Segment older = segments.get(best);
+        Segment newer = segments.get(best + 1);
+        Segment merged = Segment.merge(older, newer);
+        synchronized (this) {
+            // only the merger removes segments, so both are still in place
+            List<Segment> current = new ArrayList<>(state.segments);
+            int index = current.indexOf(older);
+            current.set(index, merged);
+            current.remove(index + 1);
+            state = new State(Collections.unmodifiableList(current), state.live);
+            mergeScheduled = false;
+            scheduleMerge();
+        }
+    }
+
+    private static class State {
+        final List<Segment> segments;
+        final LiveSegment live;
+
+        State(List<Segment> segments, LiveSegment live) {
+            this.segments = segments;
+            this.live = live;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package deisgn.socialMedia;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Small mutable segment that takes new documents. Queries read the posting arrays under the
+ * lock, so a document is searchable as soon as add() returns.
+ */
+class LiveSegment {
+    private final Map<String, long[]> postings = new HashMap<>();
+    private final Map<String, Integer> sizes = new HashMap<>();
+    private int docCount;
+
+    synchronized void add(long docId, Iterable<String> terms) {
+        for (String term : terms) {
+            long[] docs = postings.get(term);
+            int size = sizes.getOrDefault(term, 0);
+            if (docs == null) {
+                docs = new long[4];
+            } else if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            // ids nearly always arrive in order, so this is an append
+            int insertAt = size;
+            while (insertAt > 0 && docs[insertAt - 1] > docId) {
+                insertAt--;
+            }
+            System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+            docs[insertAt] = docId;
+            postings.put(term, docs);
+            sizes.put(term, size + 1);
+        }
+        docCount++;
+    }
+
+    synchronized int docCount() {
+        return docCount;
+    }
+
+    /**
+     * Offers the newest docs containing every term to topK. The rarest term's postings are
+     * walked backwards and the others are binary searched, so this stops after k matches.
+     */
+    synchronized void collectNewest(List<String> terms, PriorityQueue<Long> topK, int k) {
+        String rarest = null;
+        for (String term : terms) {
+            Integer size = sizes.get(term);
+            if (size == null) {
+                return;
+            }
+            if (rarest == null || size < sizes.get(rarest)) {
+                rarest = term;
+            }
+        }
+        long[] lead = postings.get(rarest);
+        outer:
+        for (int i = sizes.get(rarest) - 1; i >= 0; i--) {
+            long doc = lead[i];
+            if (topK.size() == k && doc <= topK.peek()) {
+                return;
+            }
+            for (String term : terms) {
+                if (!term.equals(rarest) && Arrays.binarySearch(postings.get(term), 0, sizes.get(term), doc) < 0) {
+                    continue outer;
+                }
+            }
+            InvertedIndex.offer(topK, k, doc);
+        }
+    }
+
+    synchronized Segment freeze() {
+        Map<String, PostingList> frozen = new HashMap<>(postings.size() * 2);
+        for (Map.Entry<String, long[]> entry : postings.entrySet()) {
+            long[] docs = entry.getValue();
+            int size = sizes.get(entry.getKey());
+            PostingList.Builder builder = new PostingList.Builder();
+            for (int i = 0; i < size; i++) {
+                builder.add(docs[i]);
+            }
+            frozen.put(entry.getKey(), builder.build());
+        }
+        return new Segment(frozen, docCount);
+    }
+}
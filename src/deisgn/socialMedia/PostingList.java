@@ -0,0 +1,167 @@
+package deisgn.socialMedia;
+
+import java.util.Arrays;
+
+/**
+ * Immutable, compressed list of ascending doc ids.
+ *
+ * Ids are split into blocks of BLOCK_SIZE. The first id of each block is kept uncompressed in
+ * skipDocs together with the byte offset where the block's varint deltas start, so advance()
+ * can jump straight to the right block instead of decoding everything before it.
+ */
+class PostingList {
+    static final int BLOCK_SIZE = 64;
+
+    private final byte[] data;
+    private final int count;
+    private final long[] skipDocs;
+    private final int[] skipOffsets;
+    private final long lastDoc;
+
+    private PostingList(byte[] data, int count, long[] skipDocs, int[] skipOffsets, long lastDoc) {
+        this.data = data;
+        this.count = count;
+        this.skipDocs = skipDocs;
+        this.skipOffsets = skipOffsets;
+        this.lastDoc = lastDoc;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int blockCount() {
+        return skipDocs.length;
+    }
+
+    long blockFirstDoc(int block) {
+        return skipDocs[block];
+    }
+
+    /** Largest id in the list, or -1 when it is empty. */
+    long lastDoc() {
+        return lastDoc;
+    }
+
+    int sizeInBytes() {
+        return data.length + skipDocs.length * 12;
+    }
+
+    DocCursor cursor() {
+        return new Cursor();
+    }
+
+    static class Builder {
+        private byte[] data = new byte[16];
+        private int length;
+        private int count;
+        private long[] skipDocs = new long[4];
+        private int[] skipOffsets = new int[4];
+        private long last = -1;
+
+        Builder add(long doc) {
+            if (doc <= last) {
+                throw new IllegalArgumentException("Doc ids must be ascending: " + doc + " after " + last);
+            }
+            if (count % BLOCK_SIZE == 0) {
+                int block = count / BLOCK_SIZE;
+                if (block == skipDocs.length) {
+                    skipDocs = Arrays.copyOf(skipDocs, block * 2);
+                    skipOffsets = Arrays.copyOf(skipOffsets, block * 2);
+                }
+                skipDocs[block] = doc;
+                skipOffsets[block] = length;
+            } else {
+                writeVarLong(doc - last);
+            }
+            last = doc;
+            count++;
+            return this;
+        }
+
+        PostingList build() {
+            int blocks = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            return new PostingList(Arrays.copyOf(data, length), count,
+                    Arrays.copyOf(skipDocs, blocks), Arrays.copyOf(skipOffsets, blocks), last);
+        }
+
+        private void writeVarLong(long value) {
+            if (length + 10 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+            }
+            while ((value & ~0x7FL) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+
+    private class Cursor implements DocCursor {
+        private int index = -1;
+        private int offset;
+        private long doc = -1;
+
+        @Override
+        public long doc() {
+            return doc;
+        }
+
+        @Override
+        public int cost() {
+            return count;
+        }
+
+        @Override
+        public boolean next() {
+            index++;
+            if (index >= count) {
+                doc = EXHAUSTED;
+                return false;
+            }
+            if (index % BLOCK_SIZE == 0) {
+                int block = index / BLOCK_SIZE;
+                doc = skipDocs[block];
+                offset = skipOffsets[block];
+            } else {
+                long delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[offset++];
+                    delta |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                doc += delta;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean advance(long target) {
+            if (doc >= target) {
+                return doc != EXHAUSTED;
+            }
+            int current = Math.max(index, 0) / BLOCK_SIZE;
+            if (current + 1 < skipDocs.length && skipDocs[current + 1] <= target) {
+                int low = current + 1;
+                int high = skipDocs.length - 1;
+                while (low < high) {
+                    int mid = (low + high + 1) >>> 1;
+                    if (skipDocs[mid] <= target) {
+                        low = mid;
+                    } else {
+                        high = mid - 1;
+                    }
+                }
+                index = low * BLOCK_SIZE - 1;
+            }
+            while (next()) {
+                if (doc >= target) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package deisgn.socialMedia;
+
+import java.util.List;
+import java.util.Random;
+
+public class SearchDemo {
+    private static final String[] WORDS = {"java", "rust", "coffee", "morning", "design", "system", "cache",
+            "index", "queue", "stream", "thread", "lock", "merge", "heap", "graph", "tree", "hash", "node"};
+
+    public static void main(String[] args) throws InterruptedException {
+        int tweetCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(7);
+        try (TimelineEngine engine = new TimelineEngine()) {
+            engine.registerUser(1, "John Doe");
+            engine.registerUser(2, "Jane Smith");
+            engine.registerUser(3, "John Smith");
+            System.out.println("Users matching 'smith': " + engine.searchUsers("smith", 10));
+            System.out.println("Users matching 'john smith': " + engine.searchUsers("john smith", 10));
+
+            long start = System.nanoTime();
+            for (int i = 0; i < tweetCount; i++) {
+                StringBuilder content = new StringBuilder();
+                for (int w = 0; w < 6; w++) {
+                    content.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                }
+                content.append("#t").append(i % 1000);
+                engine.postTweet(1 + random.nextInt(3), content.toString());
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.println("Tweets indexed per second: " + (long) (tweetCount / (elapsed / 1e9)));
+
+            Tweet fresh = engine.postTweet(2, "brand new kotlin coroutine tweet");
+            List<Tweet> found = engine.searchTweets("kotlin coroutine", 10);
+            System.out.println("Fresh tweet searchable: " + (!found.isEmpty() && found.get(0).getId() == fresh.getId()));
+
+            int queries = 10_000;
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                engine.searchTweets(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                        + " t" + random.nextInt(1000), 10);
+            }
+            elapsed = System.nanoTime() - start;
+            System.out.println("Average 3-term query (us): " + elapsed / queries / 1000);
+
+            for (Tweet tweet : engine.searchTweets("java cache", 3)) {
+                System.out.println(tweet.getId() + " - " + tweet.getContent());
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package deisgn.socialMedia;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/** Immutable set of compressed posting lists for a batch of documents. */
+class Segment {
+    private final Map<String, PostingList> postings;
+    private final int docCount;
+    private final long maxDoc;
+
+    Segment(Map<String, PostingList> postings, int docCount) {
+        this.postings = postings;
+        this.docCount = docCount;
+        long max = -1;
+        for (PostingList list : postings.values()) {
+            max = Math.max(max, list.lastDoc());
+        }
+        this.maxDoc = max;
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    /** Largest doc id in the segment, or -1 when it is empty. */
+    long maxDoc() {
+        return maxDoc;
+    }
+
+    /** Returns null when the term does not occur in this segment. */
+    PostingList postings(String term) {
+        return postings.get(term);
+    }
+
+    /** Returns null when the term does not occur in this segment. */
+    DocCursor cursor(String term) {
+        PostingList list = postings.get(term);
+        return list == null ? null : list.cursor();
+    }
+
+    static Segment merge(Segment older, Segment newer) {
+        Set<String> terms = new HashSet<>(older.postings.keySet());
+        terms.addAll(newer.postings.keySet());
+        Map<String, PostingList> merged = new HashMap<>(terms.size() * 2);
+        for (String term : terms) {
+            PostingList.Builder builder = new PostingList.Builder();
+            DocCursor a = older.cursor(term);
+            DocCursor b = newer.cursor(term);
+            if (a != null) {
+                a.next();
+            }
+            if (b != null) {
+                b.next();
+            }
+            // segments can overlap slightly when tweets were indexed out of id order
+            while (true) {
+                long docA = a == null ? DocCursor.EXHAUSTED : a.doc();
+                long docB = b == null ? DocCursor.EXHAUSTED : b.doc();
+                if (docA == DocCursor.EXHAUSTED && docB == DocCursor.EXHAUSTED) {
+                    break;
+                }
+                if (docA <= docB) {
+                    builder.add(docA);
+                    a.next();
+                    if (docA == docB) {
+                        b.next();
+                    }
+                } else {
+                    builder.add(docB);
+                    b.next();
+                }
+            }
+            merged.put(term, builder.build());
+        }
+        return new Segment(merged, older.docCount + newer.docCount);
+    }
+}
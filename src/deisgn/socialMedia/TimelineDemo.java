@@ -0,0 +1,55 @@
+package deisgn.socialMedia;
+
+import java.util.Random;
+
+public class TimelineDemo {
+    public static void main(String[] args) {
+        int userCount = 20_000;
+        int followsPerUser = 50;
+        int tweetCount = 200_000;
+        TimelineEngine engine = new TimelineEngine(1024, 5_000);
+        Random random = new Random(42);
+
+        for (long id = 0; id < userCount; id++) {
+            engine.registerUser(id);
+        }
+        // user 0 is followed by everyone and becomes a celebrity
+        for (long id = 1; id < userCount; id++) {
+            engine.followUser(id, 0);
+            for (int i = 0; i < followsPerUser; i++) {
+                long followee = 1 + random.nextInt(userCount - 1);
+                if (followee != id) {
+                    engine.followUser(id, followee);
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < tweetCount; i++) {
+            long author = i % 100 == 0 ? 0 : random.nextInt(userCount);
+            engine.postTweet(author, "tweet " + i);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Tweets posted per second: " + (long) (tweetCount / (elapsed / 1e9)));
+
+        int reads = 200_000;
+        start = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            engine.getNewsFeed(1 + random.nextInt(userCount - 1), 20);
+        }
+        elapsed = System.nanoTime() - start;
+        System.out.println("Average feed page read (ns): " + elapsed / reads);
+
+        FeedPage page = engine.getNewsFeed(1, 5);
+        for (int i = 0; i < 3 && !page.getTweets().isEmpty(); i++) {
+            System.out.println("Page " + (i + 1) + ":");
+            for (Tweet tweet : page.getTweets()) {
+                System.out.println("  " + tweet.getId() + " by " + tweet.getAuthorId() + " - " + tweet.getContent());
+            }
+            if (!page.hasMore()) {
+                break;
+            }
+            page = engine.getNewsFeed(1, page.getNextCursor(), 5);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package deisgn.socialMedia;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hybrid fan-out timeline.
+ *
+ * Posting writes the tweet id into the author's own ring and, for normal authors, into the
+ * home ring of every follower, so reading a feed is a copy out of one bounded ring. Authors
+ * with at least celebrityThreshold followers are not fanned out; their rings are pulled at
+ * read time and merged with the home ring through a heap, which caps write amplification at
+ * celebrityThreshold ring inserts per tweet.
+ *
+ * Tweet ids are handed out in posting order, so they double as recency and as page cursors.
+ * Tweets and user names are also fed into inverted indexes for search.
+ */
+public class TimelineEngine implements Closeable {
+    private static final int DEFAULT_RING_CAPACITY = 1024;
+    private static final int DEFAULT_CELEBRITY_THRESHOLD = 10_000;
+
+    private final int ringCapacity;
+    private final int celebrityThreshold;
+    private final AtomicLong tweetIds = new AtomicLong();
+    private final ConcurrentHashMap<Long, Tweet> tweets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, UserState> users = new ConcurrentHashMap<>();
+    private final InvertedIndex tweetIndex = new InvertedIndex();
+    private final InvertedIndex userIndex = new InvertedIndex();
+
+    public TimelineEngine() {
+        this(DEFAULT_RING_CAPACITY, DEFAULT_CELEBRITY_THRESHOLD);
+    }
+
+    public TimelineEngine(int ringCapacity, int celebrityThreshold) {
+        this.ringCapacity = ringCapacity;
+        this.celebrityThreshold = celebrityThreshold;
+    }
+
+    public void registerUser(long userId) {
+        users.putIfAbsent(userId, new UserState(userId, ringCapacity));
+    }
+
+    public void registerUser(long userId, String name) {
+        if (users.putIfAbsent(userId, new UserState(userId, ringCapacity)) == null) {
+            userIndex.add(userId, name);
+        }
+    }
+
+    public Tweet postTweet(long userId, String content) {
+        UserState author = user(userId);
+        Tweet tweet = new Tweet(tweetIds.incrementAndGet(), userId, content, System.currentTimeMillis());
+        tweets.put(tweet.getId(), tweet);
+        tweetIndex.add(tweet.getId(), content);
+        // the author ring is written first so a follower that misses the fan-out still
+        // picks the tweet up through backfill or the celebrity pull
+        author.ownTweets.add(tweet.getId());
+        author.home.add(tweet.getId());
+        if (!author.celebrity) {
+            for (Long followerId : author.followers) {
+                UserState follower = users.get(followerId);
+                if (follower != null) {
+                    follower.home.add(tweet.getId());
+                }
+            }
+        }
+        return tweet;
+    }
+
+    public void followUser(long followerId, long followeeId) {
+        if (followerId == followeeId) {
+            throw new IllegalArgumentException("User cannot follow themselves: " + followerId);
+        }
+        UserState follower = user(followerId);
+        UserState followee = user(followeeId);
+        synchronized (followee) {
+            if (!followee.followers.add(followerId)) {
+                return;
+            }
+            follower.following.add(followeeId);
+            if (followee.celebrity) {
+                follower.celebritiesFollowed.add(followeeId);
+            } else if (followee.followers.size() >= celebrityThreshold) {
+                promote(followee);
+            }
+        }
+        if (!followee.celebrity) {
+            // newest() is newest first; adding oldest first makes each add an append
+            long[] backfill = followee.ownTweets.newest(ringCapacity);
+            for (int i = backfill.length - 1; i >= 0; i--) {
+                follower.home.add(backfill[i]);
+            }
+        }
+    }
+
+    public void unfollowUser(long followerId, long followeeId) {
+        UserState follower = user(followerId);
+        UserState followee = user(followeeId);
+        synchronized (followee) {
+            followee.followers.remove(followerId);
+            follower.following.remove(followeeId);
+            follower.celebritiesFollowed.remove(followeeId);
+        }
+    }
+
+    public FeedPage getNewsFeed(long userId, int limit) {
+        return getNewsFeed(userId, FeedPage.START, limit);
+    }
+
+    public FeedPage getNewsFeed(long userId, long cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        UserState user = user(userId);
+        List<Tweet> page = new ArrayList<>(limit);
+        while (page.size() < limit) {
+            PriorityQueue<Source> heap = new PriorityQueue<>();
+            addSource(heap, user.home.readBefore(cursor, limit));
+            for (Long celebrityId : user.celebritiesFollowed) {
+                UserState celebrity = users.get(celebrityId);
+                if (celebrity != null) {
+                    addSource(heap, celebrity.ownTweets.readBefore(cursor, limit));
+                }
+            }
+            if (heap.isEmpty()) {
+                return new FeedPage(page, FeedPage.END);
+            }
+            long last = cursor;
+            int taken = 0;
+            while (!heap.isEmpty() && taken < limit && page.size() < limit) {
+                Source source = heap.poll();
+                long id = source.ids[source.pos++];
+                if (source.pos < source.ids.length) {
+                    heap.add(source);
+                }
+                // every pop counts: no source can run dry before limit pops, so nothing
+                // older than an unread id of another source is emitted early
+                taken++;
+                if (id == last) {
+                    continue; // same tweet reached through fan-out and celebrity pull
+                }
+                last = id;
+                Tweet tweet = tweets.get(id);
+                if (tweet != null && isVisible(user, tweet)) {
+                    page.add(tweet);
+                }
+            }
+            cursor = last;
+        }
+        return new FeedPage(page, cursor);
+    }
+
+    /** Most recent tweets containing every word of the query, newest first. */
+    public List<Tweet> searchTweets(String query, int k) {
+        List<Tweet> result = new ArrayList<>();
+        for (long id : tweetIndex.search(query, k)) {
+            Tweet tweet = tweets.get(id);
+            if (tweet != null) {
+                result.add(tweet);
+            }
+        }
+        return result;
+    }
+
+    /** Ids of the most recently registered users whose name contains every word of the query. */
+    public List<Long> searchUsers(String query, int k) {
+        List<Long> result = new ArrayList<>();
+        for (long id : userIndex.search(query, k)) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        tweetIndex.close();
+        userIndex.close();
+    }
+
+    private boolean isVisible(UserState user, Tweet tweet) {
+        // home rings keep tweets from accounts that were unfollowed later
+        return tweet.getAuthorId() == user.id || user.following.contains(tweet.getAuthorId());
+    }
+
+    private void promote(UserState followee) {
+        followee.celebrity = true;
+        for (Long followerId : followee.followers) {
+            UserState follower = users.get(followerId);
+            if (follower != null) {
+                follower.celebritiesFollowed.add(followee.id);
+            }
+        }
+    }
+
+    private static void addSource(PriorityQueue<Source> heap, long[] ids) {
+        if (ids.length > 0) {
+            heap.add(new Source(ids));
+        }
+    }
+
+    private UserState user(long userId) {
+        UserState user = users.get(userId);
+        if (user == null) {
+            throw new IllegalArgumentException("Unknown user: " + userId);
+        }
+        return user;
+    }
+
+    private static class UserState {
+        final long id;
+        final TweetRing home;
+        final TweetRing ownTweets;
+        final Set<Long> followers = ConcurrentHashMap.newKeySet();
+        final Set<Long> following = ConcurrentHashMap.newKeySet();
+        final Set<Long> celebritiesFollowed = ConcurrentHashMap.newKeySet();
+        volatile boolean celebrity;
+
+        UserState(long id, int ringCapacity) {
+            this.id = id;
+            this.home = new TweetRing(ringCapacity);
+            this.ownTweets = new TweetRing(ringCapacity);
+        }
+    }
+
+    // one descending run of ids taking part in the k-way merge, ordered by its current head
+    private static class Source implements Comparable<Source> {
+        final long[] ids;
+        int pos;
+
+        Source(long[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public int compareTo(Source other) {
+            return Long.compare(other.ids[other.pos], ids[pos]);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package deisgn.socialMedia;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/** Lower-cases text and splits it on anything that is not a letter, digit or underscore. */
+class Tokenizer {
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    static List<String> distinctTerms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && isWordChar(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start <= MAX_TOKEN_LENGTH) {
+                    terms.add(text.substring(start, i).toLowerCase());
+                }
+                start = -1;
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
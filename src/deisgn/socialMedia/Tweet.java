@@ -0,0 +1,35 @@
+package deisgn.socialMedia;
+
+public class Tweet {
+    private final long id;
+    private final long authorId;
+    private final String content;
+    private final long timestamp;
+
+    public Tweet(long id, long authorId, String content, long timestamp) {
+        this.id = id;
+        this.authorId = authorId;
+        this.content = content;
+        this.timestamp = timestamp;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getAuthorId() {
+        return authorId;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getDetails() {
+        return "Tweet: " + content + ", Timestamp: " + timestamp;
+    }
+}
@@ -0,0 +1,71 @@
+package deisgn.socialMedia;
+
+/**
+ * Bounded ring of tweet ids kept in ascending order. Once full, adding a tweet drops the
+ * oldest one. Concurrent fan-outs can arrive slightly out of order, so add() does a short
+ * insertion from the newest end; it also ignores ids that are already present.
+ */
+class TweetRing {
+    private final long[] ids;
+    private final int mask;
+    private long head; // logical index of the next write
+
+    TweetRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.ids = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    synchronized void add(long id) {
+        long oldest = head - size();
+        long insertAt = head;
+        while (insertAt > oldest && ids[slot(insertAt - 1)] > id) {
+            insertAt--;
+        }
+        if (insertAt > oldest && ids[slot(insertAt - 1)] == id) {
+            return;
+        }
+        if (insertAt == oldest && size() == ids.length) {
+            return; // older than everything we keep
+        }
+        for (long i = head; i > insertAt; i--) {
+            ids[slot(i)] = ids[slot(i - 1)];
+        }
+        ids[slot(insertAt)] = id;
+        head++;
+    }
+
+    /** Returns up to max ids strictly below cursor, newest first. */
+    synchronized long[] readBefore(long cursor, int max) {
+        long low = head - size();
+        long high = head;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (ids[slot(mid)] < cursor) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int count = (int) Math.min(max, low - (head - size()));
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = ids[slot(low - 1 - i)];
+        }
+        return result;
+    }
+
+    synchronized long[] newest(int max) {
+        return readBefore(Long.MAX_VALUE, max);
+    }
+
+    private int size() {
+        return (int) Math.min(head, ids.length);
+    }
+
+    private int slot(long index) {
+        return (int) (index & mask);
+    }
+}
@@ -0,0 +1,49 @@
+package deisgn.urlShortener;
+
+public class Base62Encoder {
+    private static final String BASE62 = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final int MAX_LENGTH = 11; // 62^11 > Long.MAX_VALUE
+
+    public String encode(long input) {
+        if (input < 0) {
+            throw new IllegalArgumentException("Id must be non-negative: " + input);
+        }
+        if (input == 0) {
+            return "0";
+        }
+        char[] buffer = new char[MAX_LENGTH];
+        int pos = MAX_LENGTH;
+        while (input > 0) {
+            buffer[--pos] = BASE62.charAt((int) (input % 62));
+            input /= 62;
+        }
+        return new String(buffer, pos, MAX_LENGTH - pos);
+    }
+
+    // returns -1 for anything that is not a valid code, including leading zeros ("01"),
+    // so every id has exactly one code
+    public long decode(String input) {
+        if (input == null || input.isEmpty() || input.length() > MAX_LENGTH) {
+            return -1;
+        }
+        if (input.length() > 1 && input.charAt(0) == '0') {
+            return -1;
+        }
+        long decoded = 0;
+        for (int i = 0; i < input.length(); i++) {
+            int digit = digit(input.charAt(i));
+            if (digit < 0 || decoded > (Long.MAX_VALUE - digit) / 62) {
+                return -1;
+            }
+            decoded = decoded * 62 + digit;
+        }
+        return decoded;
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'A' && c <= 'Z') return c - 'A' + 10;
+        if (c >= 'a' && c <= 'z') return c - 'a' + 36;
+        return -1;
+    }
+}
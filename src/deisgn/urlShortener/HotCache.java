@@ -0,0 +1,44 @@
+package deisgn.urlShortener;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free, direct-mapped cache in front of the log. A slot holds the last entry
+ * hashed to it, so memory is fixed at construction and lookups are a single array read.
+ */
+class HotCache {
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+
+    HotCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    Entry get(long id) {
+        Entry entry = slots.get(slot(id));
+        return entry != null && entry.id == id ? entry : null;
+    }
+
+    void put(Entry entry) {
+        slots.set(slot(entry.id), entry);
+    }
+
+    private int slot(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    static class Entry {
+        final long id;
+        final String longUrl;
+        final long expiresAt;
+
+        Entry(long id, String longUrl, long expiresAt) {
+            this.id = id;
+            this.longUrl = longUrl;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package deisgn.urlShortener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Hands out ids from a monotonic counter. Ids are reserved in blocks: the ceiling of each
+ * block is forced to disk before any id from it is used, so after a restart (even after an
+ * OS crash) we continue from the last persisted ceiling and never reuse an id. No collision
+ * check is needed.
+ */
+class IdAllocator {
+    private final AtomicLong next;
+    private final long blockSize;
+    private final LongConsumer reserver;
+    private volatile long ceiling;
+
+    IdAllocator(long ceiling, long blockSize, LongConsumer reserver) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.next = new AtomicLong(ceiling);
+        this.ceiling = ceiling;
+        this.blockSize = blockSize;
+        this.reserver = reserver;
+    }
+
+    long nextId() {
+        long id = next.getAndIncrement();
+        if (id >= ceiling) {
+            reserveUpTo(id);
+        }
+        return id;
+    }
+
+    private synchronized void reserveUpTo(long id) {
+        while (id >= ceiling) {
+            long newCeiling = ceiling + blockSize;
+            reserver.accept(newCeiling);
+            ceiling = newCeiling;
+        }
+    }
+}
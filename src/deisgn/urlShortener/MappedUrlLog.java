@@ -0,0 +1,182 @@
+package deisgn.urlShortener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only log of URL mappings, memory-mapped in fixed size regions.
+ *
+ * Record layout: [type:1][id:8][expiresAt:8][length:4][utf-8 bytes].
+ * A RESERVE record stores the persisted id ceiling in the id field. When a record does not
+ * fit in what is left of a region, a PAD byte is written and the record goes to the next one.
+ * Unwritten space is zero, so END marks where the log stops on replay.
+ */
+class MappedUrlLog implements Closeable {
+    static final byte END = 0;
+    static final byte MAPPING = 1;
+    static final byte RESERVE = 2;
+    static final byte PAD = 3;
+    static final int HEADER_SIZE = 1 + 8 + 8 + 4;
+
+    private final FileChannel channel;
+    private final int regionSize;
+    private volatile MappedByteBuffer[] regions;
+    private MappedByteBuffer current;
+    private int currentRegion;
+
+    interface ReplayListener {
+        void onMapping(long id, long expiresAt, long position);
+
+        void onReserve(long ceiling);
+    }
+
+    MappedUrlLog(Path file, int regionSize) throws IOException {
+        this.regionSize = regionSize;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        int count = (int) Math.max(1, (channel.size() + regionSize - 1) / regionSize);
+        MappedByteBuffer[] mapped = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            mapped[i] = map(i);
+        }
+        this.regions = mapped;
+    }
+
+    int maxPayload() {
+        return regionSize - HEADER_SIZE;
+    }
+
+    /** Scans the log from the start and leaves the writer positioned after the last record. */
+    void replay(ReplayListener listener) throws IOException {
+        MappedByteBuffer[] mapped = regions;
+        for (int r = 0; r < mapped.length; r++) {
+            MappedByteBuffer region = mapped[r];
+            int offset = 0;
+            while (offset < regionSize) {
+                byte type = region.get(offset);
+                if (type == END) {
+                    current = region;
+                    currentRegion = r;
+                    current.position(offset);
+                    return;
+                }
+                if (type == PAD) {
+                    break;
+                }
+                long position = (long) r * regionSize + offset;
+                if (offset + HEADER_SIZE > regionSize) {
+                    throw new IOException("Corrupt log record at " + position);
+                }
+                long id = region.getLong(offset + 1);
+                long expiresAt = region.getLong(offset + 9);
+                int length = region.getInt(offset + 17);
+                if (length < 0 || length > regionSize - offset - HEADER_SIZE) {
+                    throw new IOException("Corrupt log record at " + position);
+                }
+                if (type == MAPPING) {
+                    listener.onMapping(id, expiresAt, position);
+                } else if (type == RESERVE) {
+                    listener.onReserve(id);
+                } else {
+                    throw new IOException("Corrupt log record at " + position);
+                }
+                offset += HEADER_SIZE + length;
+            }
+        }
+        currentRegion = mapped.length - 1;
+        current = mapped[currentRegion];
+        nextRegion();
+    }
+
+    synchronized long appendMapping(long id, long expiresAt, byte[] longUrl) throws IOException {
+        return append(MAPPING, id, expiresAt, longUrl);
+    }
+
+    /**
+     * Writes a RESERVE record and forces it to disk before returning, so an id ceiling is never
+     * handed out that a crash of the machine could lose. If the record moved to a new region,
+     * the PAD left in the previous one is forced as well, otherwise replay would stop there.
+     */
+    synchronized void appendReserve(long ceiling) throws IOException {
+        int startRegion = currentRegion;
+        append(RESERVE, ceiling, 0, new byte[0]);
+        MappedByteBuffer[] mapped = regions;
+        for (int r = startRegion; r <= currentRegion; r++) {
+            mapped[r].force();
+        }
+    }
+
+    private long append(byte type, long id, long expiresAt, byte[] payload) throws IOException {
+        int size = HEADER_SIZE + payload.length;
+        if (size > regionSize) {
+            throw new IllegalArgumentException("Record of " + size + " bytes does not fit a region");
+        }
+        if (current.remaining() < size) {
+            if (current.hasRemaining()) {
+                current.put(PAD);
+            }
+            nextRegion();
+        }
+        long position = (long) currentRegion * regionSize + current.position();
+        current.put(type).putLong(id).putLong(expiresAt).putInt(payload.length).put(payload);
+        return position;
+    }
+
+    long expiresAt(long position) {
+        return region(position).getLong(offset(position) + 9);
+    }
+
+    String readUrl(long position) {
+        MappedByteBuffer region = region(position);
+        int offset = offset(position);
+        byte[] bytes = new byte[region.getInt(offset + 17)];
+        ByteBuffer view = region.duplicate();
+        view.position(offset + HEADER_SIZE);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    synchronized void flush() {
+        for (MappedByteBuffer region : regions) {
+            region.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private MappedByteBuffer region(long position) {
+        return regions[(int) (position / regionSize)];
+    }
+
+    private int offset(long position) {
+        return (int) (position % regionSize);
+    }
+
+    private void nextRegion() throws IOException {
+        int next = currentRegion + 1;
+        MappedByteBuffer[] mapped = regions;
+        if (next >= mapped.length) {
+            mapped = Arrays.copyOf(mapped, next + 1);
+            mapped[next] = map(next);
+            regions = mapped;
+        }
+        current = mapped[next];
+        current.position(0);
+        currentRegion = next;
+    }
+
+    private MappedByteBuffer map(int region) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, (long) region * regionSize, regionSize);
+    }
+}
@@ -0,0 +1,42 @@
+package deisgn.urlShortener;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Maps id -> log position. Ids come from a dense counter, so a paged long array is enough;
+ * no hashing and no boxing. Positions are stored +1 so that 0 means "absent".
+ */
+class OffsetIndex {
+    private static final int PAGE_BITS = 16;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int MAX_PAGES = 1 << 16;
+
+    private final AtomicReferenceArray<AtomicLongArray> pages = new AtomicReferenceArray<>(MAX_PAGES);
+
+    void put(long id, long position) {
+        page(id, true).set((int) (id & PAGE_MASK), position + 1);
+    }
+
+    long get(long id) {
+        AtomicLongArray page = page(id, false);
+        return page == null ? -1 : page.get((int) (id & PAGE_MASK)) - 1;
+    }
+
+    private AtomicLongArray page(long id, boolean create) {
+        long pageIndex = id >>> PAGE_BITS;
+        if (pageIndex >= MAX_PAGES) {
+            if (create) {
+                throw new IllegalStateException("Id space exhausted: " + id);
+            }
+            return null;
+        }
+        AtomicLongArray page = pages.get((int) pageIndex);
+        if (page == null && create) {
+            pages.compareAndSet((int) pageIndex, null, new AtomicLongArray(PAGE_SIZE));
+            page = pages.get((int) pageIndex);
+        }
+        return page;
+    }
+}
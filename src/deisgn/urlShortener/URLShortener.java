@@ -0,0 +1,105 @@
+package deisgn.urlShortener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+public class URLShortener implements Closeable {
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private static final int DEFAULT_REGION_SIZE = 64 << 20;
+    private static final long DEFAULT_BLOCK_SIZE = 10_000;
+    private static final int DEFAULT_CACHE_SIZE = 1 << 16;
+
+    private final Base62Encoder encoder = new Base62Encoder();
+    private final OffsetIndex index = new OffsetIndex();
+    private final MappedUrlLog log;
+    private final HotCache cache;
+    private final IdAllocator ids;
+
+    public URLShortener(Path logFile) throws IOException {
+        this(logFile, DEFAULT_REGION_SIZE, DEFAULT_BLOCK_SIZE, DEFAULT_CACHE_SIZE);
+    }
+
+    public URLShortener(Path logFile, int regionSize, long blockSize, int cacheSize) throws IOException {
+        this.log = new MappedUrlLog(logFile, regionSize);
+        this.cache = new HotCache(cacheSize);
+        long[] ceiling = {0};
+        log.replay(new MappedUrlLog.ReplayListener() {
+            @Override
+            public void onMapping(long id, long expiresAt, long position) {
+                index.put(id, position);
+            }
+
+            @Override
+            public void onReserve(long reserved) {
+                ceiling[0] = Math.max(ceiling[0], reserved);
+            }
+        });
+        this.ids = new IdAllocator(ceiling[0], blockSize, reserved -> {
+            try {
+                log.appendReserve(reserved);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public String shortenUrl(String longUrl) throws IOException {
+        return shortenUrl(longUrl, NO_EXPIRY);
+    }
+
+    public String shortenUrl(String longUrl, long ttlMillis) throws IOException {
+        if (longUrl == null || longUrl.isEmpty()) {
+            throw new IllegalArgumentException("URL must not be empty");
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("TTL must be positive: " + ttlMillis);
+        }
+        byte[] bytes = longUrl.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > log.maxPayload()) {
+            throw new IllegalArgumentException("URL is too long: " + bytes.length + " bytes");
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = ttlMillis >= NO_EXPIRY - now ? NO_EXPIRY : now + ttlMillis;
+        long id;
+        try {
+            id = ids.nextId();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        long position = log.appendMapping(id, expiresAt, bytes);
+        index.put(id, position);
+        cache.put(new HotCache.Entry(id, longUrl, expiresAt));
+        return encoder.encode(id);
+    }
+
+    /** Returns the long URL, or null if the code is unknown or has expired. */
+    public String redirectUrl(String shortUrl) {
+        long id = encoder.decode(shortUrl);
+        if (id < 0) {
+            return null;
+        }
+        HotCache.Entry entry = cache.get(id);
+        if (entry == null) {
+            long position = index.get(id);
+            if (position < 0) {
+                return null;
+            }
+            entry = new HotCache.Entry(id, log.readUrl(position), log.expiresAt(position));
+            cache.put(entry);
+        }
+        return entry.expiresAt > System.currentTimeMillis() ? entry.longUrl : null;
+    }
+
+    public void flush() {
+        log.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+}
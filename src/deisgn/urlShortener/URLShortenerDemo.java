@@ -0,0 +1,76 @@
+package deisgn.urlShortener;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+public class URLShortenerDemo {
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int perThread = args.length > 0 ? Integer.parseInt(args[0]) : 250_000;
+        Path logFile = Files.createTempFile("urls", ".log");
+        logFile.toFile().deleteOnExit();
+
+        String[] codes = new String[threads * perThread];
+        try (URLShortener urlShortener = new URLShortener(logFile)) {
+            String shortUrl = urlShortener.shortenUrl("https://www.example.com/some/long/url");
+            System.out.println("Short URL: " + shortUrl);
+            System.out.println("Original URL: " + urlShortener.redirectUrl(shortUrl));
+
+            String expiring = urlShortener.shortenUrl("https://www.example.com/flash-sale", 50);
+            Thread.sleep(100);
+            System.out.println("Expired URL: " + urlShortener.redirectUrl(expiring));
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int base = t * perThread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        codes[base + i] = urlShortener.shortenUrl("https://www.example.com/page/" + (base + i));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.println("Shortens per second: " + (long) (codes.length / (elapsed / 1e9)));
+
+            start = System.nanoTime();
+            futures.clear();
+            for (int t = 0; t < threads; t++) {
+                int base = t * perThread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        urlShortener.redirectUrl(codes[base + i]);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            elapsed = System.nanoTime() - start;
+            System.out.println("Average redirect (ns): " + elapsed * threads / codes.length);
+            executor.shutdown();
+        }
+
+        try (URLShortener reopened = new URLShortener(logFile)) {
+            int missing = 0;
+            for (int i = 0; i < codes.length; i++) {
+                if (!("https://www.example.com/page/" + i).equals(reopened.redirectUrl(codes[i]))) {
+                    missing++;
+                }
+            }
+            System.out.println("Mappings lost after replay: " + missing);
+            System.out.println("Next code after restart: " + reopened.shortenUrl("https://www.example.com/after-restart"));
+        }
+    }
+}
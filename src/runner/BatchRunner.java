@@ -0,0 +1,153 @@
+package runner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many (problem, input file) jobs on one warm JVM instead of one JVM per job.
+ *
+ * Manifest: one job per line, "problem inputFile [outputFile]". Blank lines and lines starting
+ * with # are skipped, and relative paths are resolved against the manifest's directory. Jobs run
+ * in parallel. System.in, System.out and System.err are swapped for thread-local versions, so
+ * each job reads its own input and writes into its own buffer. A job with an outputFile writes
+ * its buffer there. Otherwise the buffers are printed to stdout in manifest order, each after a
+ * "==> problem inputFile <==" header.
+ */
+public class BatchRunner {
+    private final DriverRegistry registry;
+    private final int threads;
+
+    public BatchRunner(DriverRegistry registry, int threads) {
+        this.registry = registry;
+        this.threads = threads;
+    }
+
+    /** Returns the number of jobs that failed. */
+    public int run(Path manifest) throws IOException, InterruptedException {
+        List<Job> jobs = parse(manifest);
+        PrintStream realOut = System.out;
+        PrintStream realErr = System.err;
+        ThreadLocalInputStream in = new ThreadLocalInputStream(System.in);
+        ThreadLocalPrintStream out = new ThreadLocalPrintStream(realOut);
+        ThreadLocalPrintStream err = new ThreadLocalPrintStream(realErr);
+        System.setIn(in);
+        System.setOut(out);
+        System.setErr(err);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int failed = 0;
+        try {
+            List<Future<Result>> results = new ArrayList<>();
+            for (Job job : jobs) {
+                results.add(executor.submit(() -> job.run(in, out, err)));
+            }
+            for (int i = 0; i < jobs.size(); i++) {
+                Job job = jobs.get(i);
+                Result result;
+                try {
+                    result = results.get(i).get();
+                } catch (ExecutionException e) {
+                    result = new Result(new byte[0], new byte[0], e.getCause());
+                }
+                if (job.output != null) {
+                    Files.write(job.output, result.stdout);
+                } else {
+                    realOut.println("==> " + job.problem + " " + job.input + " <==");
+                    realOut.write(result.stdout, 0, result.stdout.length);
+                }
+                realErr.write(result.stderr, 0, result.stderr.length);
+                if (result.error != null) {
+                    failed++;
+                    realErr.println("FAILED " + job.problem + " " + job.input + ": " + result.error);
+                }
+            }
+            realOut.flush();
+        } finally {
+            executor.shutdownNow();
+            System.setIn(in.fallback());
+            System.setOut(realOut);
+            System.setErr(realErr);
+        }
+        return failed;
+    }
+
+    private List<Job> parse(Path manifest) throws IOException {
+        Path base = manifest.toAbsolutePath().getParent();
+        List<Job> jobs = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new IllegalArgumentException(manifest + ":" + lineNumber + ": expected 'problem inputFile [outputFile]'");
+            }
+            MethodHandle main = registry.find(parts[0]);
+            jobs.add(new Job(parts[0], main, base.resolve(parts[1]), parts.length == 3 ? base.resolve(parts[2]) : null));
+        }
+        return jobs;
+    }
+
+    private static class Job {
+        final String problem;
+        final MethodHandle main;
+        final Path input;
+        final Path output;
+
+        Job(String problem, MethodHandle main, Path input, Path output) {
+            this.problem = problem;
+            this.main = main;
+            this.input = input;
+            this.output = output;
+        }
+
+        Result run(ThreadLocalInputStream in, ThreadLocalPrintStream out, ThreadLocalPrintStream err) throws IOException {
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+            PrintStream jobOut = new PrintStream(stdout, false, StandardCharsets.UTF_8);
+            PrintStream jobErr = new PrintStream(stderr, false, StandardCharsets.UTF_8);
+            in.bind(new ByteArrayInputStream(Files.readAllBytes(input)));
+            out.bind(jobOut);
+            err.bind(jobErr);
+            Throwable error = null;
+            try {
+                main.invokeExact(new String[0]);
+            } catch (Throwable t) {
+                error = t;
+            } finally {
+                in.unbind();
+                out.unbind();
+                err.unbind();
+            }
+            jobOut.flush();
+            jobErr.flush();
+            return new Result(stdout.toByteArray(), stderr.toByteArray(), error);
+        }
+    }
+
+    private static class Result {
+        final byte[] stdout;
+        final byte[] stderr;
+        final Throwable error;
+
+        Result(byte[] stdout, byte[] stderr, Throwable error) {
+            this.stdout = stdout;
+            this.stderr = stderr;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package runner;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Finds every class with a public static main(String[]) next to the runner on the class
+ * path, whether that is a directory of classes or a jar. Drivers are looked up by fully
+ * qualified name, or by simple name when it is unique (TwoSum, BalancedBrackets, ...).
+ */
+public class DriverRegistry {
+    private final Map<String, MethodHandle> qualified = new TreeMap<>();
+    private final Map<String, MethodHandle> simple = new HashMap<>();
+    private final Set<String> ambiguous = new HashSet<>();
+
+    public static DriverRegistry discover(Class<?> anchor) throws IOException {
+        DriverRegistry registry = new DriverRegistry();
+        Path root;
+        try {
+            root = Paths.get(anchor.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Cannot locate classes of " + anchor.getName(), e);
+        }
+        ClassLoader loader = anchor.getClassLoader();
+        for (String className : classNames(root)) {
+            if (className.equals(anchor.getName()) || className.startsWith("runner.")) {
+                continue;
+            }
+            registry.register(className, loader);
+        }
+        return registry;
+    }
+
+    public MethodHandle find(String problem) {
+        MethodHandle main = qualified.get(problem);
+        if (main != null) {
+            return main;
+        }
+        if (ambiguous.contains(problem)) {
+            throw new IllegalArgumentException("Several drivers are called " + problem + ", use the fully qualified name");
+        }
+        main = simple.get(problem);
+        if (main == null) {
+            throw new IllegalArgumentException("No driver called " + problem);
+        }
+        return main;
+    }
+
+    /** Fully qualified names of all drivers, sorted. */
+    public List<String> names() {
+        return new ArrayList<>(qualified.keySet());
+    }
+
+    private void register(String className, ClassLoader loader) {
+        Method method;
+        try {
+            // do not initialise: static state of drivers should only be set up when they run
+            Class<?> type = Class.forName(className, false, loader);
+            method = type.getMethod("main", String[].class);
+        } catch (ClassNotFoundException | NoSuchMethodException | LinkageError e) {
+            return;
+        }
+        int modifiers = method.getModifiers();
+        if (!Modifier.isStatic(modifiers) || method.getReturnType() != void.class) {
+            return;
+        }
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().findStatic(method.getDeclaringClass(), "main",
+                    MethodType.methodType(void.class, String[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return; // e.g. a public main in a package-private class
+        }
+        qualified.put(className, handle);
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        if (ambiguous.contains(simpleName)) {
+            return;
+        }
+        if (simple.containsKey(simpleName)) {
+            simple.remove(simpleName);
+            ambiguous.add(simpleName);
+        } else {
+            simple.put(simpleName, handle);
+        }
+    }
+
+    private static List<String> classNames(Path root) throws IOException {
+        List<String> names = new ArrayList<>();
+        if (Files.isDirectory(root)) {
+            try (Stream<Path> files = Files.walk(root)) {
+                files.filter(file -> isTopLevelClass(file.getFileName().toString()))
+                        .forEach(file -> names.add(toClassName(root.relativize(file).toString().replace('\\', '/'))));
+            }
+        } else {
+            try (JarFile jar = new JarFile(root.toFile())) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    String entry = entries.nextElement().getName();
+                    if (isTopLevelClass(entry.substring(entry.lastIndexOf('/') + 1))) {
+                        names.add(toClassName(entry));
+                    }
+                }
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    private static boolean isTopLevelClass(String fileName) {
+        return fileName.endsWith(".class") && !fileName.contains("$") && !fileName.equals("module-info.class");
+    }
+
+    private static String toClassName(String path) {
+        return path.substring(0, path.length() - ".class".length()).replace('/', '.');
+    }
+}
@@ -0,0 +1,57 @@
+package runner;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/** Installed as System.in so that every batch job reads its own input file. */
+class ThreadLocalInputStream extends InputStream {
+    private final InputStream fallback;
+    private final InheritableThreadLocal<InputStream> current;
+
+    ThreadLocalInputStream(InputStream fallback) {
+        this.fallback = fallback;
+        this.current = new InheritableThreadLocal<InputStream>() {
+            @Override
+            protected InputStream initialValue() {
+                return fallback;
+            }
+        };
+    }
+
+    InputStream fallback() {
+        return fallback;
+    }
+
+    void bind(InputStream in) {
+        current.set(in);
+    }
+
+    void unbind() {
+        current.remove();
+    }
+
+    @Override
+    public int read() throws IOException {
+        return current.get().read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        return current.get().read(b, off, len);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        return current.get().skip(n);
+    }
+
+    @Override
+    public int available() throws IOException {
+        return current.get().available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        current.get().close();
+    }
+}
@@ -0,0 +1,199 @@
+package runner;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Installed as System.out / System.err so that every batch job writes into its own buffer.
+ * Every method forwards to the current thread's stream, so parallel jobs never share
+ * PrintStream's internal lock. The value is inheritable, so threads a driver starts write into
+ * the same buffer as the driver.
+ */
+class ThreadLocalPrintStream extends PrintStream {
+    private final InheritableThreadLocal<PrintStream> current;
+
+    ThreadLocalPrintStream(PrintStream fallback) {
+        super(OutputStream.nullOutputStream());
+        this.current = new InheritableThreadLocal<PrintStream>() {
+            @Override
+            protected PrintStream initialValue() {
+                return fallback;
+            }
+        };
+    }
+
+    void bind(PrintStream out) {
+        current.set(out);
+    }
+
+    void unbind() {
+        current.remove();
+    }
+
+    private PrintStream out() {
+        return current.get();
+    }
+
+    @Override
+    public void write(int b) {
+        out().write(b);
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) {
+        out().write(buf, off, len);
+    }
+
+    @Override
+    public void flush() {
+        out().flush();
+    }
+
+    @Override
+    public void close() {
+        out().close();
+    }
+
+    @Override
+    public boolean checkError() {
+        return out().checkError();
+    }
+
+    @Override
+    public void print(boolean b) {
+        out().print(b);
+    }
+
+    @Override
+    public void print(char c) {
+        out().print(c);
+    }
+
+    @Override
+    public void print(int i) {
+        out().print(i);
+    }
+
+    @Override
+    public void print(long l) {
+        out().print(l);
+    }
+
+    @Override
+    public void print(float f) {
+        out().print(f);
+    }
+
+    @Override
+    public void print(double d) {
+        out().print(d);
+    }
+
+    @Override
+    public void print(char[] s) {
+        out().print(s);
+    }
+
+    @Override
+    public void print(String s) {
+        out().print(s);
+    }
+
+    @Override
+    public void print(Object obj) {
+        out().print(obj);
+    }
+
+    @Override
+    public void println() {
+        out().println();
+    }
+
+    @Override
+    public void println(boolean x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(char x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(int x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(long x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(float x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(double x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(char[] x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(String x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(Object x) {
+        out().println(x);
+    }
+
+    @Override
+    public PrintStream printf(String format, Object... args) {
+        out().printf(format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream printf(Locale l, String format, Object... args) {
+        out().printf(l, format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream format(String format, Object... args) {
+        out().format(format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream format(Locale l, String format, Object... args) {
+        out().format(l, format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream append(CharSequence csq) {
+        out().append(csq);
+        return this;
+    }
+
+    @Override
+    public PrintStream append(CharSequence csq, int start, int end) {
+        out().append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    public PrintStream append(char c) {
+        out().append(c);
+        return this;
+    }
+}